@@ -5,11 +5,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableScheduling
 @EntityScan(basePackages = "com.eformsign.common.entity")
-@ComponentScan(basePackages = { "com.eformsign.api", "com.eformsign.common" })
+@ComponentScan(basePackages = { "com.eformsign.api", "com.eformsign.common", "com.eformsign.storage" })
 public class ApiServerApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,158 @@
+package com.eformsign.api.config;
+
+import com.eformsign.common.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Admission control ahead of AuthInterceptor. Routes that wait on eformsign and purely local routes
+// (login, /members/me, bulk-send status, ...) have separate adaptive limits, so an eformsign brownout
+// fills only the upstream limit: excess upstream calls get 503 + Retry-After right away and the worker
+// threads stay free for local requests. Event streams and exports are long-lived by design and not limited.
+// Routes are classed by RouteTable (@Route on the controllers).
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+  private final RouteTable routes;
+  private final boolean enabled;
+  private final String retryAfterSeconds;
+  private final byte[] rejectionBody;
+  private final GradientLimiter upstream;
+  private final GradientLimiter local;
+  private final Counter upstreamRejected;
+  private final Counter localRejected;
+
+  public AdmissionControlFilter(RouteTable routes, MeterRegistry meterRegistry, ObjectMapper objectMapper,
+      @Value("${app.admission.enabled:true}") boolean enabled,
+      @Value("${app.admission.retry-after-seconds:1}") int retryAfterSeconds,
+      @Value("${app.admission.upstream.initial-limit:20}") int upstreamInitial,
+      @Value("${app.admission.upstream.min-limit:4}") int upstreamMin,
+      @Value("${app.admission.upstream.max-limit:150}") int upstreamMax,
+      @Value("${app.admission.local.initial-limit:50}") int localInitial,
+      @Value("${app.admission.local.min-limit:10}") int localMin,
+      @Value("${app.admission.local.max-limit:200}") int localMax) throws IOException {
+    this.routes = routes;
+    this.enabled = enabled;
+    this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    this.rejectionBody = objectMapper.writeValueAsBytes(ApiResponse.error("Server is busy, please retry"));
+    this.upstream = new GradientLimiter(upstreamInitial, upstreamMin, upstreamMax);
+    this.local = new GradientLimiter(localInitial, localMin, localMax);
+    this.upstreamRejected = register(meterRegistry, "upstream", upstream);
+    this.localRejected = register(meterRegistry, "local", local);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled
+        || "OPTIONS".equals(request.getMethod())
+        || !request.getRequestURI().startsWith("/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    RouteKind kind = routes.kindOf(request);
+    if (kind == RouteKind.STREAM || kind == RouteKind.EXPORT) {
+      chain.doFilter(request, response);
+      return;
+    }
+    boolean upstreamBound = kind == RouteKind.UPSTREAM;
+    GradientLimiter limiter = upstreamBound ? upstream : local;
+    if (!limiter.tryAcquire()) {
+      (upstreamBound ? upstreamRejected : localRejected).increment();
+      reject(response);
+      return;
+    }
+
+    int inFlightAtStart = limiter.inFlight();
+    long start = System.nanoTime();
+    boolean async = false;
+    try {
+      chain.doFilter(request, response);
+      if (request.isAsyncStarted()) {
+        async = true;
+        request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, start, inFlightAtStart));
+      }
+    } finally {
+      if (!async) {
+        limiter.release(System.nanoTime() - start, inFlightAtStart);
+      }
+    }
+  }
+
+  private void reject(HttpServletResponse response) throws IOException {
+    response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setContentLength(rejectionBody.length);
+    response.getOutputStream().write(rejectionBody);
+  }
+
+  private static Counter register(MeterRegistry meterRegistry, String group, GradientLimiter limiter) {
+    Gauge.builder("http.admission.limit", limiter, GradientLimiter::limit).tag("group", group)
+        .register(meterRegistry);
+    Gauge.builder("http.admission.in-flight", limiter, GradientLimiter::inFlight).tag("group", group)
+        .register(meterRegistry);
+    return meterRegistry.counter("http.admission.rejected", "group", group);
+  }
+
+  private static final class ReleaseOnComplete implements AsyncListener {
+    private final GradientLimiter limiter;
+    private final long start;
+    private final int inFlightAtStart;
+    private boolean released;
+
+    private ReleaseOnComplete(GradientLimiter limiter, long start, int inFlightAtStart) {
+      this.limiter = limiter;
+      this.start = start;
+      this.inFlightAtStart = inFlightAtStart;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      release(true);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      release(false);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      release(false);
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+
+    // Timeouts and errors free the slot without feeding the latency estimate
+    private synchronized void release(boolean sample) {
+      if (!released) {
+        released = true;
+        limiter.release(sample ? System.nanoTime() - start : 0, inFlightAtStart);
+      }
+    }
+  }
+}
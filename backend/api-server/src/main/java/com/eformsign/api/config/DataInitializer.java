@@ -1,6 +1,7 @@
 package com.eformsign.api.config;
 
 import com.eformsign.api.service.EformsignService;
+import com.eformsign.api.service.JsonMaps;
 import com.eformsign.api.service.MemberService;
 import com.eformsign.common.type.MemberRole;
 import com.eformsign.common.entity.Member;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +22,7 @@ public class DataInitializer implements CommandLineRunner {
 
   private final MemberService memberService;
   private final EformsignService eformsignService;
+  private final StartupOrchestrator startupOrchestrator;
 
   @Value("${app.admin.id}")
   private String adminId;
@@ -29,24 +32,21 @@ public class DataInitializer implements CommandLineRunner {
 
   @Override
   public void run(String... args) throws Exception {
+    // Local only; the app is ready as soon as this returns
     createAdminAccount();
 
-    // Debug: Test Access Token
-    try {
-      log.info("Testing Access Token Generation...");
-      Map<String, Object> token = eformsignService.getAccessToken(adminId);
-      log.info("Access Token Success: {}", token != null);
-    } catch (Exception e) {
-      log.error("Access Token Failed in DataInitializer", e);
-    }
-
-    syncMembersfromEformsign();
+    // Upstream work runs in parallel in the background. The token load is single-flight,
+    // so the listing warm-ups share the admin token instead of minting their own.
+    startupOrchestrator.submit("access-token", () -> eformsignService.getAccessToken(adminId));
+    startupOrchestrator.submit("template-cache", () -> eformsignService.getTemplates(adminId));
+    startupOrchestrator.submit("member-sync", this::syncMembersfromEformsign);
+    startupOrchestrator.start();
   }
 
   private void createAdminAccount() {
     try {
       if (memberService.getMemberByLoginId(adminId) == null) {
-        memberService.createMember(adminId, adminPassword, "Administrator");
+        memberService.createMember(adminId, adminPassword, "Administrator", null);
         // Force role update if needed (createMember defaults to MEMBER)
         // But MemberService.createMember doesn't return entity with setter?
         // Actually it saves. We can update role via repository if we had access,
@@ -62,7 +62,7 @@ public class DataInitializer implements CommandLineRunner {
       // getMemberByLoginId throws if not found.
       // So we should catch that and create.
       try {
-        memberService.createMember(adminId, adminPassword, "Administrator");
+        memberService.createMember(adminId, adminPassword, "Administrator", null);
         log.info("Created local admin account: {}", adminId);
       } catch (Exception ex) {
         log.error("Failed to create admin account", ex);
@@ -73,30 +73,28 @@ public class DataInitializer implements CommandLineRunner {
   private void syncMembersfromEformsign() {
     log.info("Initializing members from Eformsign API...");
     try {
-      // Fetch members from Eformsign (limit 1000 to get all)
+      // Fetch members from Eformsign (limit 1000 to get all).
+      // No transaction is open here; the DB is only touched after the upstream call returns.
       Map<String, Object> response = eformsignService.getMembers(adminId, 1, 1000);
 
-      if (response != null && response.containsKey("members")) {
-        List<Map<String, Object>> members = (List<Map<String, Object>>) response.get("members");
+      List<Map<String, Object>> members = response != null ? JsonMaps.listOf(response.get("members")) : null;
+      if (members != null) {
 
+        Map<String, String> namesByLoginId = new LinkedHashMap<>();
         for (Map<String, Object> memberData : members) {
           String memberId = (String) memberData.get("id"); // ID or email
           String name = (String) memberData.get("name");
 
           if (memberId != null) {
-            try {
-              // Use email/id as loginId, default password "password"
-              // Name fallback to memberId if null
-              memberService.createMember(memberId, "password", name != null ? name : memberId);
-              log.info("Synced member: {}", memberId);
-            } catch (IllegalArgumentException e) {
-              // Already exists, ignore
-            } catch (Exception e) {
-              log.error("Failed to sync member: " + memberId, e);
-            }
+            // Use email/id as loginId, name fallback to memberId if null
+            namesByLoginId.put(memberId, name != null ? name : memberId);
           }
         }
-        log.info("Member synchronization completed. Total processed: {}", members.size());
+
+        // Default password "password", each member saved in its own short transaction; these are the default
+        // company's members
+        int created = memberService.syncMembers(namesByLoginId, "password", null);
+        log.info("Member synchronization completed. Total processed: {}, created: {}", members.size(), created);
       } else {
         log.warn("No 'members' key in Eformsign API response or response is null");
       }
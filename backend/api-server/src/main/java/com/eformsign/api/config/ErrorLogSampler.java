@@ -0,0 +1,84 @@
+package com.eformsign.api.config;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rate-limited error logging per key (exception type, upstream status). Within each window the first
+// stack-traces occurrences are logged in full, the next one-liners as a single line each, and the rest are
+// only counted; the count is reported once when the key's next window starts. During an upstream outage
+// every failing request hits the same few keys, so the log volume stays flat however many requests fail.
+final class ErrorLogSampler {
+
+  private static final int MAX_KEYS = 1000;
+  private static final String OTHER_KEY = "other";
+
+  private final Logger log;
+  private final Duration window;
+  private final long windowNanos;
+  private final int stackTraces;
+  private final int oneLiners;
+  private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+  ErrorLogSampler(Logger log, Duration window, int stackTraces, int oneLiners) {
+    this.log = log;
+    this.window = window;
+    this.windowNanos = window.toNanos();
+    this.stackTraces = stackTraces;
+    this.oneLiners = oneLiners;
+  }
+
+  void error(String key, String message, Throwable e) {
+    long n = count(key);
+    if (n <= stackTraces) {
+      log.error("{}: {}", message, e.toString(), e);
+    } else if (n <= stackTraces + oneLiners) {
+      log.error("{}: {} (stack trace sampled out)", message, e.toString());
+    }
+  }
+
+  // Expected failures (e.g. eformsign rejecting a call): never a stack trace
+  void warn(String key, String format, Object arg1, Object arg2) {
+    if (count(key) <= stackTraces + oneLiners) {
+      log.warn(format, arg1, arg2);
+    }
+  }
+
+  // Occurrences of key in the current window, including this one
+  private long count(String key) {
+    Window current = windows.get(key);
+    if (current == null) {
+      // Keys come from exception classes and status codes, but never let the map grow without bound
+      String bounded = windows.size() < MAX_KEYS ? key : OTHER_KEY;
+      current = windows.computeIfAbsent(bounded, k -> new Window(System.nanoTime()));
+      key = bounded;
+    }
+    long now = System.nanoTime();
+    long start = current.start.get();
+    if (now - start >= windowNanos && current.start.compareAndSet(start, now)) {
+      long suppressed = current.suppressed.getAndSet(0);
+      current.count.set(0);
+      if (suppressed > 0) {
+        log.warn("{} more '{}' errors in the last {} were not logged", suppressed, key, window);
+      }
+    }
+    long n = current.count.incrementAndGet();
+    if (n > stackTraces + oneLiners) {
+      current.suppressed.incrementAndGet();
+    }
+    return n;
+  }
+
+  private static final class Window {
+    private final AtomicLong start;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private Window(long start) {
+      this.start = new AtomicLong(start);
+    }
+  }
+}
@@ -1,34 +1,62 @@
 package com.eformsign.api.config;
 
+import com.eformsign.api.config.auth.AccessDeniedException;
 import com.eformsign.common.dto.ApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
+
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+  // Failing requests only hand the event to the async appender; repeats of the same error are sampled
+  private final ErrorLogSampler errors;
+
+  public GlobalExceptionHandler(
+      @Value("${app.logging.errors.window:1m}") Duration window,
+      @Value("${app.logging.errors.stack-traces-per-window:5}") int stackTraces,
+      @Value("${app.logging.errors.one-liners-per-window:20}") int oneLiners) {
+    this.errors = new ErrorLogSampler(log, window, stackTraces, oneLiners);
+  }
+
   @ExceptionHandler(IllegalArgumentException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ApiResponse<Void> handleIllegalArgumentException(IllegalArgumentException e) {
     return ApiResponse.error(e.getMessage());
   }
 
+  @ExceptionHandler(AccessDeniedException.class)
+  @ResponseStatus(HttpStatus.FORBIDDEN)
+  public ApiResponse<Void> handleAccessDeniedException(AccessDeniedException e) {
+    return ApiResponse.error(e.getMessage());
+  }
+
+  @ExceptionHandler(java.util.concurrent.RejectedExecutionException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ApiResponse<Void> handleRejectedExecutionException(java.util.concurrent.RejectedExecutionException e) {
+    return ApiResponse.error("Server is busy, please retry");
+  }
+
   @ExceptionHandler(org.springframework.web.reactive.function.client.WebClientResponseException.class)
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public ApiResponse<Void> handleWebClientException(
       org.springframework.web.reactive.function.client.WebClientResponseException e) {
     String responseBody = e.getResponseBodyAsString();
     int statusCode = e.getStatusCode().value();
-    System.err.println("WebClient Error (" + statusCode + "): " + responseBody);
+    errors.warn("eformsign " + statusCode, "eformsign error ({}): {}", statusCode, responseBody);
     return ApiResponse.error("External API Error (" + statusCode + "): " + responseBody);
   }
 
   @ExceptionHandler(Exception.class)
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public ApiResponse<Void> handleException(Exception e) {
-    e.printStackTrace(); // Log stack trace
+    errors.error(e.getClass().getName(), "Unhandled exception", e);
     return ApiResponse.error("Internal Server Error: " + e.getMessage());
   }
 }
@@ -0,0 +1,84 @@
+package com.eformsign.api.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Concurrency limit that follows latency (gradient, in the spirit of TCP Vegas): while requests take about
+// as long as they usually do the limit grows by a small queue allowance; once they take longer than
+// tolerance x the long-term average the limit shrinks in proportion. Rejecting beyond the limit keeps the
+// queue in front of a slow dependency short instead of letting it fill every worker thread.
+class GradientLimiter {
+
+  private static final double SMOOTHING = 0.2;
+  private static final double TOLERANCE = 2.0;
+  private static final double LONG_WINDOW = 2.0 / (600 + 1); // EMA over ~600 samples
+  private static final double SHORT_WINDOW = 2.0 / (10 + 1);
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile int limit;
+
+  // Guarded by this
+  private double estimate;
+  private double longRttNanos;
+  private double shortRttNanos;
+
+  GradientLimiter(int initialLimit, int minLimit, int maxLimit) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.estimate = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.limit = (int) estimate;
+  }
+
+  boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  // inFlightAtStart: requests in flight when this one was admitted, including itself
+  void release(long rttNanos, int inFlightAtStart) {
+    inFlight.decrementAndGet();
+    if (rttNanos > 0) {
+      onSample(rttNanos, inFlightAtStart);
+    }
+  }
+
+  int inFlight() {
+    return inFlight.get();
+  }
+
+  int limit() {
+    return limit;
+  }
+
+  private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+    if (longRttNanos == 0) {
+      longRttNanos = rttNanos;
+      shortRttNanos = rttNanos;
+      return;
+    }
+    shortRttNanos += (rttNanos - shortRttNanos) * SHORT_WINDOW;
+    longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW;
+
+    // A long overload drags the long-term average up; let it recover so the limit can grow again
+    if (longRttNanos / shortRttNanos > 2) {
+      longRttNanos *= 0.95;
+    }
+    // Only grow when the limit is actually being used
+    if (inFlightAtStart < estimate / 2) {
+      return;
+    }
+
+    double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+    double next = estimate * gradient + Math.sqrt(estimate);
+    estimate = Math.max(minLimit, Math.min(maxLimit, estimate * (1 - SMOOTHING) + next * SMOOTHING));
+    limit = (int) estimate;
+  }
+}
@@ -0,0 +1,112 @@
+package com.eformsign.api.config;
+
+import com.eformsign.common.type.MemberRole;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+// Per user and route class token buckets. Each bucket is one long, the time it will next be full
+// (GCRA "theoretical arrival time"), advanced with a CAS: no locks, nothing to refill in the background.
+// Users are kept in a Caffeine map (striped; idle users expire, and a bucket idle that long is full again
+// anyway, so forgetting it loses nothing).
+//
+// Buckets live in this JVM: with N replicas behind the load balancer a user gets up to N times the configured
+// rate. The limits are meant as a per-replica backstop against request loops, not as an exact company quota.
+final class InboundRateLimiter {
+
+  enum RouteClass {
+    UPSTREAM_READ("upstream-read"),
+    UPSTREAM_WRITE("upstream-write"),
+    EXPORT("export"),
+    LOCAL("local");
+
+    private final String key;
+
+    RouteClass(String key) {
+      this.key = key;
+    }
+
+    String key() {
+      return key;
+    }
+  }
+
+  private static final int CLASSES = RouteClass.values().length;
+
+  private final LongSupplier nanoTime;
+  // Fixed origin so the "never used" bucket (0) is always in the past
+  private final long origin;
+  // [role][route class]: nanos per token (0: unlimited) and how far ahead of now a bucket may run
+  private final long[][] intervalNanos = new long[MemberRole.values().length][CLASSES];
+  private final long[][] burstNanos = new long[MemberRole.values().length][CLASSES];
+  private final Cache<String, AtomicLongArray> buckets;
+
+  // limits: "<per second>/<burst>" (or "off") for a role and route class
+  InboundRateLimiter(BiFunction<MemberRole, RouteClass, String> limits, Duration idleEviction, long maxUsers) {
+    this(limits, idleEviction, maxUsers, System::nanoTime);
+  }
+
+  InboundRateLimiter(BiFunction<MemberRole, RouteClass, String> limits, Duration idleEviction, long maxUsers,
+      LongSupplier nanoTime) {
+    this.nanoTime = nanoTime;
+    this.origin = nanoTime.getAsLong() - 1;
+    for (MemberRole role : MemberRole.values()) {
+      for (RouteClass routeClass : RouteClass.values()) {
+        String spec = limits.apply(role, routeClass);
+        if (spec == null || spec.isBlank() || "off".equals(spec.trim().toLowerCase(Locale.ROOT))) {
+          continue;
+        }
+        String[] parts = spec.trim().split("/");
+        double perSecond = Double.parseDouble(parts[0]);
+        int burst = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+        if (perSecond <= 0 || burst < 1) {
+          throw new IllegalArgumentException("Invalid rate limit for " + role + " " + routeClass.key() + ": " + spec);
+        }
+        long interval = Math.max(1, (long) (1_000_000_000L / perSecond));
+        intervalNanos[role.ordinal()][routeClass.ordinal()] = interval;
+        burstNanos[role.ordinal()][routeClass.ordinal()] = interval * burst;
+      }
+    }
+    this.buckets = Caffeine.newBuilder()
+        .expireAfterAccess(idleEviction)
+        .maximumSize(maxUsers)
+        .build();
+  }
+
+  // 0 when allowed, otherwise nanos until the next request would be
+  long tryAcquire(String subject, MemberRole role, RouteClass routeClass) {
+    int r = role.ordinal();
+    int c = routeClass.ordinal();
+    long interval = intervalNanos[r][c];
+    if (interval == 0) {
+      return 0;
+    }
+    long burst = burstNanos[r][c];
+    AtomicLongArray user = buckets.get(subject, key -> new AtomicLongArray(CLASSES));
+    long now = nanoTime.getAsLong() - origin;
+    while (true) {
+      long full = user.get(c);
+      long next = Math.max(full, now) + interval;
+      if (next - now > burst) {
+        return next - burst - now;
+      }
+      if (user.compareAndSet(c, full, next)) {
+        return 0;
+      }
+    }
+  }
+
+  // Whole seconds for Retry-After, rounded up so a client that waits them is let through
+  static long retryAfterSeconds(long waitNanos) {
+    return Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+  }
+
+  long trackedUsers() {
+    return buckets.estimatedSize();
+  }
+}
@@ -0,0 +1,42 @@
+package com.eformsign.api.config;
+
+import com.eformsign.api.service.EformsignService;
+import com.eformsign.api.service.PasswordHashingService;
+import com.eformsign.common.util.JwtKeySet;
+import com.eformsign.common.util.JwtProvider;
+import com.eformsign.storage.SharedCacheStore;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Arrays;
+import java.util.Set;
+
+// Only matters when spring.main.lazy-initialization=true (faststart profile).
+// Beans on every request's path, health checks and @Scheduled jobs stay eager: lazy
+// schedulers would never fire, and a lazy request path just moves startup cost to the first user.
+@Configuration
+public class LazyInitConfig {
+
+  private static final Set<Class<?>> EAGER_TYPES = Set.of(
+      HandlerInterceptor.class,
+      HandlerMethodArgumentResolver.class,
+      CommandLineRunner.class,
+      HealthIndicator.class,
+      JwtKeySet.class,
+      JwtProvider.class,
+      PasswordHashingService.class,
+      EformsignService.class,
+      SharedCacheStore.class); // A @Bean typed by its interface: the @Scheduled check below cannot see its jobs
+
+  @Bean
+  public static LazyInitializationExcludeFilter eagerRequestPathBeans() {
+    return (beanName, beanDefinition, beanType) -> EAGER_TYPES.stream().anyMatch(t -> t.isAssignableFrom(beanType))
+        || Arrays.stream(beanType.getMethods()).anyMatch(m -> m.isAnnotationPresent(Scheduled.class));
+  }
+}
@@ -0,0 +1,102 @@
+package com.eformsign.api.config;
+
+import com.eformsign.api.config.auth.AuthPrincipal;
+import com.eformsign.common.dto.ApiResponse;
+import com.eformsign.common.type.MemberRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+
+// Per user (JWT subject) limits by route class, checked after authorization and before the controller, so a
+// client stuck in a request loop gets 429s instead of spending the company's eformsign quota (every
+// eformsign call goes out under the company's API key). Route classes follow RouteTable's RouteKind, split by
+// method for upstream routes. Limits per role: app.rate-limit.<role>.<route class>, falling back to
+// app.rate-limit.default.<route class>. Buckets are per replica (see InboundRateLimiter).
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+  private final RouteTable routes;
+  private final boolean enabled;
+  private final byte[] rejectionBody;
+  private final InboundRateLimiter limiter;
+  private final Counter[] rejected = new Counter[InboundRateLimiter.RouteClass.values().length];
+
+  public RateLimitInterceptor(RouteTable routes, Environment environment, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+      @Value("${app.rate-limit.enabled:true}") boolean enabled,
+      @Value("${app.rate-limit.idle-eviction:10m}") Duration idleEviction,
+      @Value("${app.rate-limit.max-users:100000}") long maxUsers) throws IOException {
+    this.routes = routes;
+    this.enabled = enabled;
+    this.rejectionBody = objectMapper.writeValueAsBytes(ApiResponse.error("Too many requests, please slow down"));
+    this.limiter = new InboundRateLimiter((role, routeClass) -> environment.getProperty(
+        "app.rate-limit." + roleKey(role) + "." + routeClass.key(),
+        environment.getProperty("app.rate-limit.default." + routeClass.key())), idleEviction, maxUsers);
+    for (InboundRateLimiter.RouteClass routeClass : InboundRateLimiter.RouteClass.values()) {
+      rejected[routeClass.ordinal()] = meterRegistry.counter("http.rate-limited", "route", routeClass.key());
+    }
+    Gauge.builder("http.rate-limit.users", limiter, InboundRateLimiter::trackedUsers).register(meterRegistry);
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+      throws IOException {
+    // Event streams are charged once, on connect
+    if (!enabled || request.getDispatcherType() == DispatcherType.ASYNC || "OPTIONS".equals(request.getMethod())) {
+      return true;
+    }
+    AuthPrincipal principal = (AuthPrincipal) request.getAttribute(AuthPrincipal.ATTRIBUTE);
+    if (principal == null || principal.getRole() == null) {
+      return true; // Unauthenticated routes (login, webhooks) are protected elsewhere
+    }
+
+    InboundRateLimiter.RouteClass routeClass = routeClass(request, handler);
+    long waitNanos = limiter.tryAcquire(principal.getLoginId(), principal.getRole(), routeClass);
+    if (waitNanos == 0) {
+      return true;
+    }
+    rejected[routeClass.ordinal()].increment();
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(InboundRateLimiter.retryAfterSeconds(waitNanos)));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setContentLength(rejectionBody.length);
+    response.getOutputStream().write(rejectionBody);
+    return false;
+  }
+
+  private InboundRateLimiter.RouteClass routeClass(HttpServletRequest request, Object handler) {
+    RouteKind kind = handler instanceof HandlerMethod ? routes.kindOf((HandlerMethod) handler) : routes.kindOf(request);
+    switch (kind) {
+      case EXPORT:
+        return InboundRateLimiter.RouteClass.EXPORT;
+      case UPSTREAM:
+        return "GET".equals(request.getMethod())
+            ? InboundRateLimiter.RouteClass.UPSTREAM_READ
+            : InboundRateLimiter.RouteClass.UPSTREAM_WRITE;
+      default:
+        return InboundRateLimiter.RouteClass.LOCAL;
+    }
+  }
+
+  // COMPANY_MANAGER -> company-manager
+  private static String roleKey(MemberRole role) {
+    return role.name().toLowerCase(Locale.ROOT).replace('_', '-');
+  }
+}
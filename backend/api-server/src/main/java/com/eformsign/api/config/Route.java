@@ -0,0 +1,13 @@
+package com.eformsign.api.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Unannotated routes are LOCAL; on a method it replaces the class-level kind
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Route {
+  RouteKind value();
+}
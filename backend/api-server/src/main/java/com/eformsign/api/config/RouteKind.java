@@ -0,0 +1,9 @@
+package com.eformsign.api.config;
+
+// What a route waits on, for admission control and rate limiting; see RouteTable
+public enum RouteKind {
+  LOCAL,    // Answered from this server (database, caches)
+  UPSTREAM, // Waits on eformsign, or is driven by it (webhooks)
+  EXPORT,   // Long-lived stream of many eformsign calls
+  STREAM    // Server push; long-lived by design
+}
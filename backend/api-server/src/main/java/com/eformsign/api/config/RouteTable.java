@@ -0,0 +1,106 @@
+package com.eformsign.api.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// RouteKind per controller method, read from @Route once when the context has started, the one place
+// AdmissionControlFilter and RateLimitInterceptor classify requests. Interceptors have the handler and
+// look it up; the filter runs before handler mapping, so it matches the request against the mapped
+// patterns, most specific first.
+@Slf4j
+@Component
+public class RouteTable implements SmartInitializingSingleton {
+
+  private final ApplicationContext context;
+  private volatile Map<Method, RouteKind> kinds = Map.of();
+  private volatile List<Entry> entries = List.of();
+
+  public RouteTable(ApplicationContext context) {
+    this.context = context;
+  }
+
+  // Looked up here rather than injected: the handler mappings are built with our interceptors
+  @Override
+  public void afterSingletonsInstantiated() {
+    Map<Method, RouteKind> table = new HashMap<>();
+    List<Entry> patterns = new ArrayList<>();
+    for (RequestMappingHandlerMapping mapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+      for (Map.Entry<RequestMappingInfo, HandlerMethod> handler : mapping.getHandlerMethods().entrySet()) {
+        HandlerMethod handlerMethod = handler.getValue();
+        RouteKind kind = kindOf(handlerMethod.getMethod(), handlerMethod.getBeanType());
+        table.put(handlerMethod.getMethod(), kind);
+        Set<RequestMethod> methods = handler.getKey().getMethodsCondition().getMethods();
+        for (String pattern : handler.getKey().getPatternValues()) {
+          patterns.add(new Entry(PathPatternParser.defaultInstance.parse(pattern), methods, kind));
+        }
+      }
+    }
+    patterns.sort(Comparator.comparing((Entry entry) -> entry.pattern, PathPattern.SPECIFICITY_COMPARATOR));
+    kinds = Map.copyOf(table);
+    entries = List.copyOf(patterns);
+    log.info("Route table built: {} handler methods, {} not local", table.size(),
+        table.values().stream().filter(kind -> kind != RouteKind.LOCAL).count());
+  }
+
+  public RouteKind kindOf(HandlerMethod handlerMethod) {
+    RouteKind kind = kinds.get(handlerMethod.getMethod());
+    return kind != null ? kind : kindOf(handlerMethod.getMethod(), handlerMethod.getBeanType());
+  }
+
+  // Unmapped requests (404s, static resources) are LOCAL
+  public RouteKind kindOf(HttpServletRequest request) {
+    PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+    String method = request.getMethod();
+    for (Entry entry : entries) {
+      if (entry.matches(path, method)) {
+        return entry.kind;
+      }
+    }
+    return RouteKind.LOCAL;
+  }
+
+  private static RouteKind kindOf(Method method, Class<?> beanType) {
+    RouteKind kind = declaredKind(method);
+    return kind != null ? kind : declaredKind(beanType);
+  }
+
+  private static RouteKind declaredKind(AnnotatedElement element) {
+    Route route = element.getAnnotation(Route.class);
+    return route != null ? route.value() : element instanceof Class ? RouteKind.LOCAL : null;
+  }
+
+  private static final class Entry {
+    private final PathPattern pattern;
+    private final Set<RequestMethod> methods; // empty: any method
+    private final RouteKind kind;
+
+    private Entry(PathPattern pattern, Set<RequestMethod> methods, RouteKind kind) {
+      this.pattern = pattern;
+      this.methods = methods;
+      this.kind = kind;
+    }
+
+    private boolean matches(PathContainer path, String method) {
+      return (methods.isEmpty() || methods.stream().anyMatch(m -> m.name().equals(method))) && pattern.matches(path);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.eformsign.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs upstream warm-up work (token, caches, member sync) in parallel after the local stack is up.
+// Exposed as the "warmup" health indicator; it only gates readiness when app.startup.await-warmup=true,
+// otherwise traffic is accepted immediately and warm-ups just shave latency off the first requests.
+@Slf4j
+@Component("warmup")
+public class StartupOrchestrator implements HealthIndicator {
+
+  private final Duration taskTimeout;
+  private final boolean awaitWarmup;
+  private final Map<String, String> taskStates = new ConcurrentHashMap<>();
+  private final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+  private final ExecutorService executor;
+  private volatile boolean finished;
+
+  public StartupOrchestrator(
+      @Value("${app.startup.warmup-timeout:30s}") Duration taskTimeout,
+      @Value("${app.startup.await-warmup:false}") boolean awaitWarmup,
+      @Value("${app.startup.warmup-threads:4}") int threads) {
+    this.taskTimeout = taskTimeout;
+    this.awaitWarmup = awaitWarmup;
+    AtomicInteger seq = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "startup-warmup-" + seq.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  public synchronized void submit(String name, Runnable task) {
+    taskStates.put(name, "RUNNING");
+    long started = System.nanoTime();
+    CompletableFuture<Void> future = CompletableFuture.runAsync(task, executor)
+        .orTimeout(taskTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .handle((ok, error) -> {
+          long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+          if (error == null) {
+            taskStates.put(name, "DONE");
+            log.info("Warm-up '{}' finished in {} ms", name, elapsedMs);
+          } else if (error.getCause() instanceof TimeoutException || error instanceof TimeoutException) {
+            taskStates.put(name, "TIMED_OUT");
+            log.warn("Warm-up '{}' timed out after {} ms; continuing in the background", name, elapsedMs);
+          } else {
+            taskStates.put(name, "FAILED");
+            log.warn("Warm-up '{}' failed after {} ms", name, elapsedMs, error);
+          }
+          return null;
+        });
+    tasks.add(future);
+  }
+
+  // Call once every task is submitted; the executor winds down when they settle
+  public synchronized void start() {
+    CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+        .whenComplete((ok, error) -> {
+          finished = true;
+          executor.shutdown();
+          log.info("Startup warm-up complete: {}", taskStates);
+        });
+  }
+
+  @Override
+  public Health health() {
+    Health.Builder builder = finished || !awaitWarmup ? Health.up() : Health.outOfService();
+    return builder.withDetails(Map.copyOf(taskStates)).withDetail("finished", finished).build();
+  }
+}
@@ -1,9 +1,13 @@
 package com.eformsign.api.config;
 
 import com.eformsign.api.config.auth.AuthInterceptor;
+import com.eformsign.api.config.auth.LoginIdResolver;
 import com.eformsign.api.config.auth.LoginUserResolver;
 import com.eformsign.api.config.auth.RoleInterceptor;
+import com.eformsign.api.profiling.ProfiledJsonConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -18,21 +22,35 @@ public class WebConfig implements WebMvcConfigurer {
 
   private final AuthInterceptor authInterceptor;
   private final RoleInterceptor roleInterceptor;
+  private final RateLimitInterceptor rateLimitInterceptor;
   private final LoginUserResolver loginUserResolver;
+  private final LoginIdResolver loginIdResolver;
+
+  // Replaces Boot's JSON converter so response serialization shows up in Flight Recorder
+  @Bean
+  public static ProfiledJsonConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+    return new ProfiledJsonConverter(objectMapper);
+  }
 
   @Override
   public void addInterceptors(InterceptorRegistry registry) {
     registry.addInterceptor(authInterceptor)
         .addPathPatterns("/api/**")
-        .excludePathPatterns("/api/v1/auth/login"); // Allow login
+        .excludePathPatterns("/api/v1/auth/login", "/api/v1/auth/refresh", "/api/v1/auth/logout") // Allow login
+        .excludePathPatterns("/api/v1/webhooks/**"); // Signed by eformsign instead
 
     registry.addInterceptor(roleInterceptor)
         .addPathPatterns("/api/**");
+
+    // After authorization, before the controller: a rejected request never reaches eformsign
+    registry.addInterceptor(rateLimitInterceptor)
+        .addPathPatterns("/api/**");
   }
 
   @Override
   public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
     resolvers.add(loginUserResolver);
+    resolvers.add(loginIdResolver);
   }
 
   @Override
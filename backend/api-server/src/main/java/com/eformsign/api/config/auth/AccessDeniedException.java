@@ -0,0 +1,9 @@
+package com.eformsign.api.config.auth;
+
+// The caller is authenticated but may not do this; GlobalExceptionHandler answers 403
+public class AccessDeniedException extends RuntimeException {
+
+  public AccessDeniedException(String message) {
+    super(message);
+  }
+}
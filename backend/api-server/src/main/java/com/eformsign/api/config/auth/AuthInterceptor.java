@@ -1,6 +1,10 @@
 package com.eformsign.api.config.auth;
 
+import com.eformsign.api.profiling.ProfilingEvents;
+import com.eformsign.api.service.EformsignTenantRegistry;
 import com.eformsign.common.util.JwtProvider;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -19,19 +23,40 @@ public class AuthInterceptor implements HandlerInterceptor {
   public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
     if (request.getMethod().equals("OPTIONS"))
       return true;
+    // Event streams complete through an async dispatch; the original request was already authenticated
+    if (request.getDispatcherType() == DispatcherType.ASYNC)
+      return true;
 
-    String header = request.getHeader("Authorization");
-    if (header != null && header.startsWith("Bearer ")) {
-      String token = header.substring(7);
-      if (jwtProvider.validateToken(token)) {
-        String subject = jwtProvider.getSubject(token);
-        log.debug("AuthInterceptor: Token valid. Subject: {}", subject);
-        request.setAttribute("USER_ID", subject);
-        request.setAttribute("USER_ROLE", jwtProvider.getRole(token));
-        return true;
-      } else {
-        log.warn("AuthInterceptor: Token valid failed");
+    ProfilingEvents.AuthenticationEvent event = ProfilingEvents.startAuthentication();
+    String outcome = "missing";
+    try {
+      String header = request.getHeader("Authorization");
+      String token = null;
+      // Header only, event streams included: a token in the query string ends up in access logs
+      if (header != null && header.startsWith("Bearer ")) {
+        token = header.substring(7);
+      }
+      if (token != null) {
+        // Parse once; refresh tokens are only accepted by /auth/refresh
+        Claims claims = jwtProvider.parseClaims(token);
+        if (claims != null && JwtProvider.TYPE_ACCESS.equals(jwtProvider.getType(claims))) {
+          String subject = claims.getSubject();
+          if (log.isDebugEnabled()) {
+            log.debug("AuthInterceptor: Token valid. Subject: {}", subject);
+          }
+          String companyId = jwtProvider.getCompanyId(claims);
+          request.setAttribute(AuthPrincipal.ATTRIBUTE,
+              new AuthPrincipal(subject, jwtProvider.getRole(claims), companyId));
+          request.setAttribute(EformsignTenantRegistry.COMPANY_ATTRIBUTE, companyId);
+          outcome = "valid";
+          return true;
+        } else {
+          outcome = "invalid";
+          log.warn("AuthInterceptor: Token valid failed");
+        }
       }
+    } finally {
+      ProfilingEvents.endAuthentication(event, outcome);
     }
 
     response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or missing token");
@@ -0,0 +1,28 @@
+package com.eformsign.api.config.auth;
+
+import com.eformsign.common.type.MemberRole;
+import lombok.Getter;
+
+// The authenticated caller, built once per request by AuthInterceptor from the access token
+@Getter
+public class AuthPrincipal {
+
+  public static final String ATTRIBUTE = "PRINCIPAL";
+
+  private final String loginId;
+  private final MemberRole role;
+  private final String companyId; // null is the default company
+  private final long permissions;
+
+  public AuthPrincipal(String loginId, MemberRole role, String companyId) {
+    this.loginId = loginId;
+    this.role = role;
+    this.companyId = companyId;
+    this.permissions = Permission.grantedTo(role);
+  }
+
+  // required: Permission bits, e.g. from AuthorizationTable
+  public boolean has(long required) {
+    return (permissions & required) == required;
+  }
+}
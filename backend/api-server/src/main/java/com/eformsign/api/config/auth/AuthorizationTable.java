@@ -0,0 +1,62 @@
+package com.eformsign.api.config.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+// Required Permission bits per controller method, read from @RequiresPermission once
+// when the context has started (before the web server accepts requests), so RoleInterceptor's check
+// is a map lookup and a bit test. Every mapped method is in the table (0: no requirement); only a
+// handler from some other mapping misses and is checked by reflection.
+@Slf4j
+@Component
+public class AuthorizationTable implements SmartInitializingSingleton {
+
+  private final ApplicationContext context;
+  private volatile Map<Method, Long> required = Map.of();
+
+  public AuthorizationTable(ApplicationContext context) {
+    this.context = context;
+  }
+
+  // Looked up here rather than injected: the handler mappings are built with our interceptors
+  @Override
+  public void afterSingletonsInstantiated() {
+    Map<Method, Long> table = new HashMap<>();
+    for (RequestMappingHandlerMapping mapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+      for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+        table.put(handlerMethod.getMethod(), requiredBits(handlerMethod.getMethod(), handlerMethod.getBeanType()));
+      }
+    }
+    required = Map.copyOf(table);
+    log.info("Authorization table built: {} handler methods, {} protected", table.size(),
+        table.values().stream().filter(bits -> bits != 0).count());
+  }
+
+  public long requiredBits(HandlerMethod handlerMethod) {
+    Long bits = required.get(handlerMethod.getMethod());
+    if (bits != null) {
+      return bits;
+    }
+    return requiredBits(handlerMethod.getMethod(), handlerMethod.getBeanType());
+  }
+
+  // Method-level annotations replace class-level ones
+  private static long requiredBits(Method method, Class<?> beanType) {
+    long bits = declaredBits(method);
+    return bits != 0 ? bits : declaredBits(beanType);
+  }
+
+  private static long declaredBits(AnnotatedElement element) {
+    RequiresPermission requires = element.getAnnotation(RequiresPermission.class);
+    return requires != null ? Permission.bits(requires.value()) : 0;
+  }
+}
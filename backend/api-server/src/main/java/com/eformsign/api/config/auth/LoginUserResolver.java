@@ -1,6 +1,5 @@
 package com.eformsign.api.config.auth;
 
-import com.eformsign.common.type.MemberRole;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.MethodParameter;
 import org.springframework.stereotype.Component;
@@ -10,38 +9,30 @@ import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import lombok.extern.slf4j.Slf4j;
 
+// @LoginUser AuthPrincipal: the caller. @LoginUser String parameters go to LoginIdResolver, so neither
+// resolver checks the parameter type per request.
 @Slf4j
-
 @Component
 public class LoginUserResolver implements HandlerMethodArgumentResolver {
 
+  // Spring caches this per parameter, so only resolveArgument runs per request
   @Override
   public boolean supportsParameter(MethodParameter parameter) {
-    return parameter.hasParameterAnnotation(LoginUser.class);
+    return parameter.hasParameterAnnotation(LoginUser.class) && parameter.getParameterType() == AuthPrincipal.class;
   }
 
   @Override
   public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
-      NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
-    HttpServletRequest request = (HttpServletRequest) webRequest.getNativeRequest();
-    String userId = (String) request.getAttribute("USER_ID");
-    log.debug("Resolving LoginUser: userId attribute = {}", userId);
-    if (userId == null) {
-      log.warn("LoginUserResolver: USER_ID attribute is null");
-      return null;
-    }
+      NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+    return principalOf(webRequest);
+  }
 
-    // Return a simple DTO or just the ID depending on need.
-    // For now returning a Map or custom object would be better, but let's conform
-    // to what request has.
-    // Or simply returning the user ID string if the parameter is String.
-    // Let's assume usage is @LoginUser String userId or we create a UserSession
-    // object.
-    // Checking parameter type:
-    if (parameter.getParameterType().equals(String.class)) {
-      return userId; // Return LoginId
+  static AuthPrincipal principalOf(NativeWebRequest webRequest) {
+    AuthPrincipal principal = (AuthPrincipal) ((HttpServletRequest) webRequest.getNativeRequest())
+        .getAttribute(AuthPrincipal.ATTRIBUTE);
+    if (principal == null) {
+      log.warn("LoginUserResolver: no authenticated principal on the request");
     }
-
-    return null;
+    return principal;
   }
 }
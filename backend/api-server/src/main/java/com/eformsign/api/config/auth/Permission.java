@@ -0,0 +1,41 @@
+package com.eformsign.api.config.auth;
+
+import com.eformsign.common.type.MemberRole;
+
+// What a role may do beyond its own documents. Each permission is one bit, so a role's grants and a
+// route's requirements (AuthorizationTable) are single longs and a check is one AND.
+public enum Permission {
+  MANAGE_MEMBERS,
+  SEND_BULK,
+  EXPORT_DOCUMENTS,
+  MANAGE_LEAVE,
+  ADMINISTER;
+
+  static final long ALL = (1L << values().length) - 1;
+
+  private static final long[] GRANTED = new long[MemberRole.values().length];
+
+  static {
+    GRANTED[MemberRole.MANAGER.ordinal()] = ALL;
+    GRANTED[MemberRole.COMPANY_MANAGER.ordinal()] = bits(MANAGE_MEMBERS, MANAGE_LEAVE);
+    GRANTED[MemberRole.TEMPLATE_MANAGER.ordinal()] = bits(SEND_BULK);
+    GRANTED[MemberRole.DOCUMENT_MANAGER.ordinal()] = bits(SEND_BULK, EXPORT_DOCUMENTS);
+    GRANTED[MemberRole.MEMBER.ordinal()] = 0;
+  }
+
+  public long bit() {
+    return 1L << ordinal();
+  }
+
+  public static long grantedTo(MemberRole role) {
+    return role != null ? GRANTED[role.ordinal()] : 0;
+  }
+
+  static long bits(Permission... permissions) {
+    long bits = 0;
+    for (Permission permission : permissions) {
+      bits |= permission.bit();
+    }
+    return bits;
+  }
+}
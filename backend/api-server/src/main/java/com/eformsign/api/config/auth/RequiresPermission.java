@@ -5,7 +5,9 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+// All of the listed permissions are required; on a method it replaces the class-level requirement
 @Target({ ElementType.METHOD, ElementType.TYPE })
 @Retention(RetentionPolicy.RUNTIME)
-public @interface ManagerOnly {
+public @interface RequiresPermission {
+  Permission[] value();
 }
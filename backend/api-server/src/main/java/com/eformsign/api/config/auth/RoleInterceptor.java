@@ -1,31 +1,29 @@
 package com.eformsign.api.config.auth;
 
-import com.eformsign.common.type.MemberRole;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 @Component
+@RequiredArgsConstructor
 public class RoleInterceptor implements HandlerInterceptor {
 
+  private final AuthorizationTable authorizationTable;
+
   @Override
   public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
     if (!(handler instanceof HandlerMethod)) {
       return true;
     }
 
-    HandlerMethod handlerMethod = (HandlerMethod) handler;
-    ManagerOnly managerOnly = handlerMethod.getMethodAnnotation(ManagerOnly.class);
-    if (managerOnly == null) {
-      managerOnly = handlerMethod.getBeanType().getAnnotation(ManagerOnly.class);
-    }
-
-    if (managerOnly != null) {
-      MemberRole role = (MemberRole) request.getAttribute("USER_ROLE");
-      if (role != MemberRole.MANAGER) {
-        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Requires Manager role");
+    long required = authorizationTable.requiredBits((HandlerMethod) handler);
+    if (required != 0) {
+      AuthPrincipal principal = (AuthPrincipal) request.getAttribute(AuthPrincipal.ATTRIBUTE);
+      if (principal == null || !principal.has(required)) {
+        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Insufficient permissions");
         return false;
       }
     }
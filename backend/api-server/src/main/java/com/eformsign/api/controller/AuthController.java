@@ -20,8 +20,24 @@ public class AuthController {
 
   @PostMapping("/login")
   public ApiResponse<Map<String, String>> login(@RequestBody LoginRequest request) {
-    String token = authService.login(request.getLoginId(), request.getPassword());
-    return ApiResponse.success(Map.of("accessToken", token));
+    AuthService.TokenPair tokens = authService.login(request.getLoginId(), request.getPassword());
+    return ApiResponse.success(toBody(tokens));
+  }
+
+  @PostMapping("/refresh")
+  public ApiResponse<Map<String, String>> refresh(@RequestBody RefreshRequest request) {
+    AuthService.TokenPair tokens = authService.refresh(request.getRefreshToken());
+    return ApiResponse.success(toBody(tokens));
+  }
+
+  @PostMapping("/logout")
+  public ApiResponse<Void> logout(@RequestBody RefreshRequest request) {
+    authService.logout(request.getRefreshToken());
+    return ApiResponse.success(null);
+  }
+
+  private Map<String, String> toBody(AuthService.TokenPair tokens) {
+    return Map.of("accessToken", tokens.getAccessToken(), "refreshToken", tokens.getRefreshToken());
   }
 
   @Data
@@ -29,4 +45,9 @@ public class AuthController {
     private String loginId;
     private String password;
   }
+
+  @Data
+  public static class RefreshRequest {
+    private String refreshToken;
+  }
 }
@@ -0,0 +1,69 @@
+package com.eformsign.api.controller;
+
+import com.eformsign.api.config.auth.LoginUser;
+import com.eformsign.api.config.auth.Permission;
+import com.eformsign.api.config.auth.RequiresPermission;
+import com.eformsign.api.service.BulkSendService;
+import com.eformsign.api.service.EformsignTenantRegistry;
+import com.eformsign.common.dto.ApiResponse;
+import com.eformsign.common.entity.BulkSendItem;
+import com.eformsign.common.entity.BulkSendJob;
+import com.eformsign.common.type.BulkSendItemStatus;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Mass send: one template to many recipients. Submitting only queues the job; BulkSendWorker
+// creates the documents in the background and clients poll the job for progress.
+@RequiresPermission(Permission.SEND_BULK)
+@RestController
+@RequestMapping("/api/v1/bulk-sends")
+@RequiredArgsConstructor
+public class BulkSendController {
+
+  private final BulkSendService bulkSendService;
+  private final EformsignTenantRegistry tenants;
+
+  @PostMapping
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public ApiResponse<BulkSendService.Progress> submit(@LoginUser String userId,
+      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+      @RequestBody BulkSendRequest request) {
+    BulkSendJob job;
+    try {
+      job = bulkSendService.submit(userId, tenants.currentCompanyId(), idempotencyKey,
+          request.getTemplateId(), request.getDocumentName(), request.getRecipients());
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent submit with the same key got its job in first; answer with that job
+      if (idempotencyKey == null || idempotencyKey.isBlank()) {
+        throw e;
+      }
+      job = bulkSendService.findJob(userId, idempotencyKey).orElseThrow(() -> e);
+    }
+    return ApiResponse.success(bulkSendService.getProgress(userId, job.getId()));
+  }
+
+  @GetMapping("/{jobId}")
+  public ApiResponse<BulkSendService.Progress> getProgress(@LoginUser String userId, @PathVariable Long jobId) {
+    return ApiResponse.success(bulkSendService.getProgress(userId, jobId));
+  }
+
+  @GetMapping("/{jobId}/items")
+  public ApiResponse<List<BulkSendItem>> getItems(@LoginUser String userId, @PathVariable Long jobId,
+      @RequestParam(required = false) BulkSendItemStatus status,
+      @RequestParam(required = false, defaultValue = "1") Integer page,
+      @RequestParam(required = false, defaultValue = "100") Integer limit) {
+    return ApiResponse.success(bulkSendService.getItems(userId, jobId, status, page, limit));
+  }
+
+  @Data
+  public static class BulkSendRequest {
+    private String templateId;
+    private String documentName;
+    private List<BulkSendService.Recipient> recipients;
+  }
+}
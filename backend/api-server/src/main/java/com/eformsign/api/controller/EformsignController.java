@@ -1,21 +1,37 @@
 package com.eformsign.api.controller;
 
+import com.eformsign.api.config.Route;
+import com.eformsign.api.config.RouteKind;
 import com.eformsign.api.config.auth.LoginUser;
+import com.eformsign.api.config.auth.Permission;
+import com.eformsign.api.config.auth.RequiresPermission;
+import com.eformsign.api.service.BulkItemResult;
+import com.eformsign.api.service.DocumentExportService;
+import com.eformsign.api.service.DocumentFileService;
+import com.eformsign.api.service.DocumentProjection;
 import com.eformsign.api.service.EformsignService;
+import com.eformsign.api.service.EncodedResponseCache;
 import com.eformsign.common.dto.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.Map;
 
+@Route(RouteKind.UPSTREAM)
 @RestController
 @RequestMapping("/api/v1/eformsign")
 @RequiredArgsConstructor
 public class EformsignController {
 
+  private static final int MAX_BULK_IDS = 500;
+
   private final EformsignService eformsignService;
+  private final DocumentFileService documentFileService;
+  private final DocumentExportService documentExportService;
+  private final EncodedResponseCache encodedResponses;
 
   @GetMapping("/token")
   public ApiResponse<Map<String, Object>> getToken(@LoginUser String userId) {
@@ -25,10 +41,14 @@ public class EformsignController {
     return ApiResponse.success(tokenInfo);
   }
 
+  // Listings are written from EncodedResponseCache: a hit skips JSON serialization entirely
   @GetMapping("/templates")
-  public ApiResponse<Map<String, Object>> getTemplates(
-      @LoginUser String userId) {
-    return ApiResponse.success(eformsignService.getTemplates(userId));
+  public void getTemplates(
+      @LoginUser String userId,
+      jakarta.servlet.http.HttpServletRequest request,
+      jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
+    encodedResponses.write(request, response, "templates", userId, null,
+        () -> ApiResponse.success(eformsignService.getTemplates(userId)));
   }
 
   @GetMapping("/documents")
@@ -42,11 +62,41 @@ public class EformsignController {
     return ApiResponse.success(eformsignService.getDocuments(userId, type, documentName, templateId, page, limit));
   }
 
+  // Every matching document with its field values, streamed as CSV or NDJSON while it is fetched
+  @Route(RouteKind.EXPORT)
+  @RequiresPermission(Permission.EXPORT_DOCUMENTS)
+  @GetMapping("/documents/export")
+  public void exportDocuments(
+      @LoginUser String userId,
+      @org.springframework.web.bind.annotation.RequestParam(required = false) String type,
+      @org.springframework.web.bind.annotation.RequestParam(required = false) String documentName,
+      @org.springframework.web.bind.annotation.RequestParam(required = false) String templateId,
+      @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "csv") String format,
+      @org.springframework.web.bind.annotation.RequestParam(required = false) String fields,
+      jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
+    documentExportService.export(userId, type, documentName, templateId, format, fields, response);
+  }
+
   @GetMapping("/documents/{documentId}")
   public ApiResponse<Map<String, Object>> getDocument(
       @LoginUser String userId,
-      @org.springframework.web.bind.annotation.PathVariable String documentId) {
-    return ApiResponse.success(eformsignService.getDocument(userId, documentId));
+      @org.springframework.web.bind.annotation.PathVariable String documentId,
+      @org.springframework.web.bind.annotation.RequestParam(required = false) String include,
+      @org.springframework.web.bind.annotation.RequestParam(required = false) String fields,
+      @org.springframework.web.bind.annotation.RequestParam(required = false) String paths) {
+    DocumentProjection projection = DocumentProjection.parse(include, fields, paths);
+    return ApiResponse.success(eformsignService.getDocument(userId, documentId, projection));
+  }
+
+  // Streams the PDF (document) or audit trail; finished documents are served from the local file cache
+  @GetMapping("/documents/{documentId}/file")
+  public void downloadDocumentFile(
+      @LoginUser String userId,
+      @org.springframework.web.bind.annotation.PathVariable String documentId,
+      @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "document") String type,
+      jakarta.servlet.http.HttpServletRequest request,
+      jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
+    documentFileService.download(userId, documentId, type, request, response);
   }
 
   @org.springframework.web.bind.annotation.PostMapping("/documents")
@@ -70,13 +120,28 @@ public class EformsignController {
     return ApiResponse.success(null);
   }
 
+  @org.springframework.web.bind.annotation.PostMapping("/templates/bulk-duplicate")
+  public ApiResponse<List<BulkItemResult>> duplicateTemplates(@LoginUser String userId,
+      @org.springframework.web.bind.annotation.RequestBody Map<String, List<String>> body) {
+    return ApiResponse.success(eformsignService.duplicateTemplates(userId, requireIds(body)));
+  }
+
+  @org.springframework.web.bind.annotation.PostMapping("/templates/bulk-delete")
+  public ApiResponse<List<BulkItemResult>> deleteTemplates(@LoginUser String userId,
+      @org.springframework.web.bind.annotation.RequestBody Map<String, List<String>> body) {
+    return ApiResponse.success(eformsignService.deleteTemplates(userId, requireIds(body)));
+  }
+
   // --- Member Management ---
   @GetMapping("/company/members")
-  public ApiResponse<Map<String, Object>> getMembers(
+  public void getMembers(
       @LoginUser String userId,
       @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "1") Integer page,
-      @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "20") Integer limit) {
-    return ApiResponse.success(eformsignService.getMembers(userId, page, limit));
+      @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "20") Integer limit,
+      jakarta.servlet.http.HttpServletRequest request,
+      jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
+    encodedResponses.write(request, response, "members", userId, page + ":" + limit,
+        () -> ApiResponse.success(eformsignService.getMembers(userId, page, limit)));
   }
 
   @org.springframework.web.bind.annotation.PostMapping("/company/members")
@@ -99,13 +164,23 @@ public class EformsignController {
     return ApiResponse.success(null);
   }
 
+  // Served from the in-memory membership index, not a scan of the groups listing
+  @GetMapping("/company/members/{targetMemberId}/groups")
+  public ApiResponse<List<Map<String, Object>>> getMemberGroups(@LoginUser String userId,
+      @org.springframework.web.bind.annotation.PathVariable String targetMemberId) {
+    return ApiResponse.success(eformsignService.getMemberGroups(userId, targetMemberId));
+  }
+
   // --- Group Management ---
   @GetMapping("/company/groups")
-  public ApiResponse<Map<String, Object>> getGroups(
+  public void getGroups(
       @LoginUser String userId,
       @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "1") Integer page,
-      @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "20") Integer limit) {
-    return ApiResponse.success(eformsignService.getGroups(userId, page, limit));
+      @org.springframework.web.bind.annotation.RequestParam(required = false, defaultValue = "20") Integer limit,
+      jakarta.servlet.http.HttpServletRequest request,
+      jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
+    encodedResponses.write(request, response, "groups", userId, page + ":" + limit,
+        () -> ApiResponse.success(eformsignService.getGroups(userId, page, limit)));
   }
 
   @org.springframework.web.bind.annotation.PostMapping("/company/groups")
@@ -121,10 +196,41 @@ public class EformsignController {
     return ApiResponse.success(eformsignService.updateGroup(userId, groupId, body));
   }
 
+  @GetMapping("/company/groups/{groupId}/members")
+  public ApiResponse<List<Map<String, Object>>> getGroupMembers(@LoginUser String userId,
+      @org.springframework.web.bind.annotation.PathVariable String groupId) {
+    return ApiResponse.success(eformsignService.getGroupMembers(userId, groupId));
+  }
+
+  // Body: {"<groupId>": {<same fields as the single PATCH>}, ...}
+  @org.springframework.web.bind.annotation.PostMapping("/company/groups/bulk-update")
+  public ApiResponse<List<BulkItemResult>> updateGroups(@LoginUser String userId,
+      @org.springframework.web.bind.annotation.RequestBody Map<String, Map<String, Object>> body) {
+    if (body.isEmpty() || body.size() > MAX_BULK_IDS) {
+      throw new IllegalArgumentException("Between 1 and " + MAX_BULK_IDS + " groups required");
+    }
+    return ApiResponse.success(eformsignService.updateGroups(userId, body));
+  }
+
+  @org.springframework.web.bind.annotation.PostMapping("/company/groups/bulk-delete")
+  public ApiResponse<List<BulkItemResult>> deleteGroups(@LoginUser String userId,
+      @org.springframework.web.bind.annotation.RequestBody Map<String, List<String>> body) {
+    return ApiResponse.success(eformsignService.deleteGroups(userId, requireIds(body)));
+  }
+
   @org.springframework.web.bind.annotation.DeleteMapping("/company/groups/{groupId}")
   public ApiResponse<Void> deleteGroup(@LoginUser String userId,
       @org.springframework.web.bind.annotation.PathVariable String groupId) {
     eformsignService.deleteGroup(userId, groupId);
     return ApiResponse.success(null);
   }
+
+  // Bulk bodies look like {"ids": ["...", ...]}
+  private static List<String> requireIds(Map<String, List<String>> body) {
+    List<String> ids = body.get("ids");
+    if (ids == null || ids.isEmpty() || ids.size() > MAX_BULK_IDS) {
+      throw new IllegalArgumentException("Between 1 and " + MAX_BULK_IDS + " ids required");
+    }
+    return ids.stream().distinct().toList();
+  }
 }
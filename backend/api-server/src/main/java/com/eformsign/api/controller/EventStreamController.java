@@ -0,0 +1,41 @@
+package com.eformsign.api.controller;
+
+import com.eformsign.api.config.Route;
+import com.eformsign.api.config.RouteKind;
+import com.eformsign.api.config.auth.AuthPrincipal;
+import com.eformsign.api.config.auth.LoginUser;
+import com.eformsign.api.service.DocumentEventHub;
+import com.eformsign.api.service.EformsignTenantRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Server push for document status changes. Authenticated like every other route, with the Authorization
+// header: the frontend reads the stream with fetch rather than EventSource, which cannot send headers.
+@Route(RouteKind.STREAM)
+@RestController
+@RequestMapping("/api/v1/events")
+@RequiredArgsConstructor
+public class EventStreamController {
+
+  private final DocumentEventHub eventHub;
+  private final EformsignTenantRegistry tenants;
+
+  @GetMapping(value = "/documents", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> documentEvents(@LoginUser AuthPrincipal principal) {
+    // Changes are only detected for the default company (its webhook and the change detector), so other
+    // companies' clients would wait on a stream that never fires; they keep polling instead
+    if (tenants.canonicalCompanyId(principal.getCompanyId()) != null) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    SseEmitter emitter = eventHub.subscribe(principal.getCompanyId(), principal.getLoginId());
+    if (emitter == null) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+    }
+    // Stop nginx-style proxies from buffering the stream
+    return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+  }
+}
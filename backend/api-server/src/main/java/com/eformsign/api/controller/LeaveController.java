@@ -0,0 +1,46 @@
+package com.eformsign.api.controller;
+
+import com.eformsign.api.config.Route;
+import com.eformsign.api.config.RouteKind;
+import com.eformsign.api.config.auth.LoginUser;
+import com.eformsign.api.config.auth.Permission;
+import com.eformsign.api.config.auth.RequiresPermission;
+import com.eformsign.api.service.LeaveBalanceService;
+import com.eformsign.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// Leave balances from LeaveBalanceService's precomputed rows; no eformsign call per request.
+// period is the leave year (e.g. 2026) and defaults to the current one.
+@RestController
+@RequestMapping("/api/v1/leave")
+@RequiredArgsConstructor
+public class LeaveController {
+
+  private final LeaveBalanceService leaveBalanceService;
+
+  @GetMapping("/balances/me")
+  public ApiResponse<Map<String, Object>> getMyBalance(@LoginUser String userId,
+      @RequestParam(required = false) String period) {
+    return ApiResponse.success(leaveBalanceService.getBalance(userId, period));
+  }
+
+  @RequiresPermission(Permission.MANAGE_LEAVE)
+  @GetMapping("/balances")
+  public ApiResponse<List<Map<String, Object>>> getBalances(@RequestParam(required = false) String period) {
+    return ApiResponse.success(leaveBalanceService.getBalances(period));
+  }
+
+  @Route(RouteKind.UPSTREAM)
+  @RequiresPermission(Permission.MANAGE_LEAVE)
+  @PostMapping("/balances/sync")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public ApiResponse<Void> sync() {
+    leaveBalanceService.requestSync();
+    return ApiResponse.success(null);
+  }
+}
@@ -1,9 +1,13 @@
 package com.eformsign.api.controller;
 
-import com.eformsign.api.config.auth.ManagerOnly;
+import com.eformsign.api.config.auth.AuthPrincipal;
+import com.eformsign.api.config.auth.LoginUser;
+import com.eformsign.api.config.auth.Permission;
+import com.eformsign.api.config.auth.RequiresPermission;
 import com.eformsign.api.service.MemberService;
 import com.eformsign.common.dto.ApiResponse;
 import com.eformsign.common.entity.Member;
+import com.eformsign.common.type.MemberRole;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -17,25 +21,38 @@ public class MemberController {
 
   private final MemberService memberService;
 
-  @ManagerOnly
+  @RequiresPermission(Permission.MANAGE_MEMBERS)
   @PostMapping
-  public ApiResponse<Long> createMember(@RequestBody CreateMemberRequest request) {
-    Member member = memberService.createMember(request.getLoginId(), request.getPassword(), request.getName());
+  public ApiResponse<Long> createMember(@LoginUser AuthPrincipal principal, @RequestBody CreateMemberRequest request) {
+    Member member = memberService.createMember(request.getLoginId(), request.getPassword(), request.getName(),
+        principal.getCompanyId());
     return ApiResponse.success(member.getId());
   }
 
-  @ManagerOnly
+  @RequiresPermission(Permission.MANAGE_MEMBERS)
   @GetMapping
-  public ApiResponse<List<MemberDto>> getMembers() {
-    List<Member> members = memberService.getAllMembers();
+  public ApiResponse<List<MemberDto>> getMembers(@LoginUser AuthPrincipal principal) {
+    List<Member> members = memberService.getMembers(principal.getCompanyId());
     List<MemberDto> dtos = members.stream()
         .map(m -> new MemberDto(m.getId(), m.getLoginId(), m.getName(), m.getRole().name()))
         .toList();
     return ApiResponse.success(dtos);
   }
 
+  // Takes effect at the member's next token refresh (access tokens live 15 minutes)
+  @RequiresPermission(Permission.MANAGE_MEMBERS)
+  @PutMapping("/{loginId}/role")
+  public ApiResponse<Void> changeRole(@LoginUser AuthPrincipal principal, @PathVariable String loginId,
+      @RequestBody ChangeRoleRequest request) {
+    if (request.getRole() == null) {
+      throw new IllegalArgumentException("role is required");
+    }
+    memberService.changeRole(principal, loginId, request.getRole());
+    return ApiResponse.success(null);
+  }
+
   @GetMapping("/me")
-  public ApiResponse<MemberDto> getMe(@com.eformsign.api.config.auth.LoginUser String loginId) {
+  public ApiResponse<MemberDto> getMe(@LoginUser String loginId) {
     Member member = memberService.getMemberByLoginId(loginId);
     return ApiResponse
         .success(new MemberDto(member.getId(), member.getLoginId(), member.getName(), member.getRole().name()));
@@ -48,6 +65,11 @@ public class MemberController {
     private String name;
   }
 
+  @Data
+  public static class ChangeRoleRequest {
+    private MemberRole role;
+  }
+
   @Data
   public static class MemberDto {
     private Long id;
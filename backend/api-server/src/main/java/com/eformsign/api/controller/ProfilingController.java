@@ -0,0 +1,24 @@
+package com.eformsign.api.controller;
+
+import com.eformsign.api.config.auth.Permission;
+import com.eformsign.api.config.auth.RequiresPermission;
+import com.eformsign.api.profiling.FlightRecorderService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RequiresPermission(Permission.ADMINISTER)
+@RestController
+@RequestMapping("/api/v1/admin/profiling")
+@RequiredArgsConstructor
+public class ProfilingController {
+
+  private final FlightRecorderService flightRecorderService;
+
+  @GetMapping("/recording")
+  public void dumpRecording(HttpServletResponse response) throws IOException {
+    flightRecorderService.dump(response);
+  }
+}
@@ -0,0 +1,92 @@
+package com.eformsign.api.controller;
+
+import com.eformsign.api.config.Route;
+import com.eformsign.api.config.RouteKind;
+import com.eformsign.api.event.DocumentStatusChangedEvent;
+import com.eformsign.api.service.JsonMaps;
+import com.eformsign.common.dto.ApiResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+
+// Receives eformsign document webhooks. Not behind AuthInterceptor; requests are authenticated by
+// the ECDSA signature eformsign puts in the eformsign_signature header (company webhook public key).
+@Slf4j
+@Route(RouteKind.UPSTREAM)
+@RestController
+@RequestMapping("/api/v1/webhooks")
+public class WebhookController {
+
+  private final ApplicationEventPublisher eventPublisher;
+  private final ObjectMapper objectMapper;
+  private final PublicKey webhookKey;
+  private final boolean allowUnsigned;
+
+  public WebhookController(ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+      @Value("${eformsign.webhook.public-key:}") String publicKey,
+      @Value("${eformsign.webhook.allow-unsigned:false}") boolean allowUnsigned) throws GeneralSecurityException {
+    this.eventPublisher = eventPublisher;
+    this.objectMapper = objectMapper;
+    this.allowUnsigned = allowUnsigned;
+    this.webhookKey = publicKey.isEmpty() ? null
+        : KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey)));
+  }
+
+  @PostMapping("/eformsign")
+  public ResponseEntity<ApiResponse<Void>> receive(
+      @RequestHeader(value = "eformsign_signature", required = false) String signature,
+      @RequestBody byte[] body) throws Exception {
+    if (!verify(body, signature)) {
+      log.warn("Rejected eformsign webhook with missing or invalid signature");
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("Invalid signature"));
+    }
+
+    Map<String, Object> payload = objectMapper.readValue(body, new TypeReference<Map<String, Object>>() {
+    });
+    Map<String, Object> doc = JsonMaps.mapOf(payload.get("document"));
+    if (doc != null) {
+      Object id = doc.get("id");
+      Object status = doc.get("status");
+      if (id != null) {
+        if (log.isDebugEnabled()) {
+          log.debug("Webhook: document {} -> {}", id, status);
+        }
+        // Signed with the configured company's webhook key, so the document is the default company's
+        eventPublisher.publishEvent(new DocumentStatusChangedEvent(null, id.toString(),
+            status != null ? status.toString() : null, doc));
+      }
+    }
+    return ResponseEntity.ok(ApiResponse.success(null));
+  }
+
+  private boolean verify(byte[] body, String signature) throws GeneralSecurityException {
+    if (webhookKey == null) {
+      return allowUnsigned;
+    }
+    if (signature == null || signature.isEmpty()) {
+      return false;
+    }
+    Signature verifier = Signature.getInstance("SHA256withECDSA");
+    verifier.initVerify(webhookKey);
+    verifier.update(body);
+    try {
+      return verifier.verify(HexFormat.of().parseHex(signature));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+}
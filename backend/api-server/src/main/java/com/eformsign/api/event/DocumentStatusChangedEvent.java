@@ -0,0 +1,18 @@
+package com.eformsign.api.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+// Published whenever we learn that an eformsign document changed (webhook, our own writes).
+// statusType is eformsign's current_status.status_type when known, otherwise null; companyId is the
+// document's eformsign company (null: the default company).
+@Getter
+@RequiredArgsConstructor
+public class DocumentStatusChangedEvent {
+  private final String companyId;
+  private final String documentId;
+  private final String statusType;
+  private final Map<String, Object> payload;
+}
@@ -0,0 +1,114 @@
+package com.eformsign.api.profiling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Continuous Flight Recorder recording: ProfilingEvents plus a short list of cheap JDK events, kept on disk
+// for max-age/max-size so the minutes before an outlier can be pulled afterwards (GET /api/v1/admin/profiling).
+// Starts from an empty configuration rather than the JDK's "default" settings: those record the process
+// environment, system properties and JVM arguments (secrets included), and dumps leave the process.
+@Slf4j
+@Component
+public class FlightRecorderService {
+
+  private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+  private static final Duration BLOCKING_THRESHOLD = Duration.ofMillis(20);
+  // Carry environment variables, system properties and command lines; never recorded here
+  private static final List<String> SENSITIVE_EVENTS = List.of("jdk.InitialEnvironmentVariable",
+      "jdk.InitialSystemProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+
+  private final boolean continuous;
+  private final Duration maxAge;
+  private final DataSize maxSize;
+  private final Duration threshold;
+  private volatile Recording recording;
+
+  public FlightRecorderService(
+      @Value("${app.profiling.continuous:true}") boolean continuous,
+      @Value("${app.profiling.max-age:30m}") Duration maxAge,
+      @Value("${app.profiling.max-size:100MB}") DataSize maxSize,
+      @Value("${app.profiling.threshold:0ms}") Duration threshold) {
+    this.continuous = continuous;
+    this.maxAge = maxAge;
+    this.maxSize = maxSize;
+    this.threshold = threshold;
+  }
+
+  @PostConstruct
+  void start() {
+    if (!continuous) {
+      return;
+    }
+    if (!FlightRecorder.isAvailable()) {
+      log.warn("Flight Recorder is not available in this JVM; profiling events are not recorded");
+      return;
+    }
+    try {
+      Recording started = new Recording();
+      started.setName("eformsign-continuous");
+      started.setToDisk(true);
+      started.setMaxAge(maxAge);
+      started.setMaxSize(maxSize.toBytes());
+      ProfilingEvents.TYPES.forEach(type -> started.enable(type).withThreshold(threshold));
+      // What explains an outlier besides our own events: GC pauses, CPU, lock and I/O waits, hot methods
+      started.enable("jdk.GarbageCollection");
+      started.enable("jdk.CPULoad").withPeriod(Duration.ofSeconds(1));
+      started.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(20));
+      started.enable("jdk.JavaMonitorEnter").withThreshold(BLOCKING_THRESHOLD);
+      started.enable("jdk.ThreadPark").withThreshold(BLOCKING_THRESHOLD);
+      started.enable("jdk.SocketRead").withThreshold(BLOCKING_THRESHOLD);
+      started.enable("jdk.SocketWrite").withThreshold(BLOCKING_THRESHOLD);
+      SENSITIVE_EVENTS.forEach(started::disable);
+      started.start();
+      recording = started;
+      log.info("Continuous Flight Recorder recording started (max age: {}, max size: {})", maxAge, maxSize);
+    } catch (RuntimeException e) {
+      log.warn("Could not start the continuous Flight Recorder recording: {}", e.getMessage());
+    }
+  }
+
+  // Everything the continuous recording still holds, as a .jfr file (open with JDK Mission Control or `jfr print`)
+  public void dump(HttpServletResponse response) throws IOException {
+    Recording current = recording;
+    if (current == null) {
+      throw new IllegalArgumentException("No continuous recording is running (app.profiling.continuous)");
+    }
+    Path file = Files.createTempFile("eformsign-", ".jfr");
+    try {
+      current.dump(file);
+      response.setContentType("application/octet-stream");
+      response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+          .filename("eformsign-" + LocalDateTime.now().format(FILE_TIME) + ".jfr").build().toString());
+      response.setContentLengthLong(Files.size(file));
+      Files.copy(file, response.getOutputStream());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @PreDestroy
+  void stop() {
+    Recording current = recording;
+    if (current != null) {
+      recording = null;
+      current.close();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.eformsign.api.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Boot's JSON converter, timed: response bodies are serialized while being written to the socket,
+// so the event covers both (a slow client shows up here too)
+public class ProfiledJsonConverter extends MappingJackson2HttpMessageConverter {
+
+  public ProfiledJsonConverter(ObjectMapper objectMapper) {
+    super(objectMapper);
+  }
+
+  @Override
+  protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+      throws IOException, HttpMessageNotWritableException {
+    ProfilingEvents.SerializationEvent event = ProfilingEvents.startSerialization();
+    try {
+      super.writeInternal(object, type, outputMessage);
+    } finally {
+      ProfilingEvents.endSerialization(event, object != null ? object.getClass().getSimpleName() : "null", -1);
+    }
+  }
+}
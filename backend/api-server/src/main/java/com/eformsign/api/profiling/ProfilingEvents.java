@@ -0,0 +1,213 @@
+package com.eformsign.api.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// Flight Recorder events for one request's breakdown: the request itself, authentication, every eformsign
+// call, repository calls and JSON serialization, all carrying the request's id (X-Request-Id) so a slow
+// request can be lined up with where its time went. Fields are only filled in when the event is committed,
+// so an event that is disabled or under its threshold costs little more than two clock reads.
+public final class ProfilingEvents {
+
+  public static final String REQUEST_ID_ATTRIBUTE = "REQUEST_ID";
+  public static final List<Class<? extends Event>> TYPES = List.of(HttpRequestEvent.class,
+      AuthenticationEvent.class, UpstreamCallEvent.class, DatabaseCallEvent.class, SerializationEvent.class);
+
+  private static final String CONTEXT_KEY = ProfilingEvents.class.getName() + ".requestId";
+
+  private ProfilingEvents() {
+  }
+
+  // null outside a request (schedulers, background workers)
+  public static String currentRequestId() {
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    return request != null
+        ? (String) request.getAttribute(REQUEST_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+        : null;
+  }
+
+  // For Reactor pipelines: hedges, retries and cache loads may subscribe on threads without the request
+  public static ContextView requestContext() {
+    String requestId = currentRequestId();
+    return requestId != null ? Context.of(CONTEXT_KEY, requestId) : Context.empty();
+  }
+
+  public static <T> T database(String operation, Supplier<T> call) {
+    DatabaseCallEvent event = new DatabaseCallEvent();
+    event.begin();
+    try {
+      return call.get();
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.requestId = currentRequestId();
+        event.operation = operation;
+        event.commit();
+      }
+    }
+  }
+
+  public static SerializationEvent startSerialization() {
+    SerializationEvent event = new SerializationEvent();
+    event.begin();
+    return event;
+  }
+
+  // bytes: -1 when written straight to the response
+  public static void endSerialization(SerializationEvent event, String type, long bytes) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.requestId = currentRequestId();
+      event.type = type;
+      event.bytes = bytes;
+      event.commit();
+    }
+  }
+
+  // Time until eformsign's response headers; a cancelled call is a hedge (or a client) that lost interest
+  public static ExchangeFilterFunction upstreamCalls(String companyId) {
+    return (request, next) -> Mono.deferContextual(context -> {
+      UpstreamCallEvent event = new UpstreamCallEvent();
+      if (!event.isEnabled()) {
+        return next.exchange(request);
+      }
+      String requestId = context.getOrDefault(CONTEXT_KEY, null);
+      event.begin();
+      return next.exchange(request)
+          .doOnNext(response -> event.status = response.statusCode().value())
+          .doFinally(signal -> {
+            event.end();
+            if (event.shouldCommit()) {
+              event.requestId = requestId;
+              event.companyId = companyId;
+              event.method = request.method().name();
+              event.path = request.url().getPath();
+              event.outcome = signal.name();
+              event.commit();
+            }
+          });
+    });
+  }
+
+  static HttpRequestEvent startRequest() {
+    HttpRequestEvent event = new HttpRequestEvent();
+    event.begin();
+    return event;
+  }
+
+  static void endRequest(HttpRequestEvent event, String requestId, String method, String path, int status,
+      String userId, boolean async) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.requestId = requestId;
+      event.method = method;
+      event.path = path;
+      event.status = status;
+      event.userId = userId;
+      event.async = async;
+      event.commit();
+    }
+  }
+
+  public static AuthenticationEvent startAuthentication() {
+    AuthenticationEvent event = new AuthenticationEvent();
+    event.begin();
+    return event;
+  }
+
+  public static void endAuthentication(AuthenticationEvent event, String outcome) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.requestId = currentRequestId();
+      event.outcome = outcome;
+      event.commit();
+    }
+  }
+
+  @Name("com.eformsign.HttpRequest")
+  @Label("HTTP Request")
+  @Category({"eformsign", "Requests"})
+  @StackTrace(false)
+  public static class HttpRequestEvent extends Event {
+    @Label("Request Id")
+    String requestId;
+    @Label("Method")
+    String method;
+    @Label("Path")
+    String path;
+    @Label("Status")
+    int status;
+    @Label("User")
+    String userId;
+    @Label("Async")
+    boolean async;
+  }
+
+  @Name("com.eformsign.Authentication")
+  @Label("Authentication")
+  @Category({"eformsign", "Requests"})
+  @StackTrace(false)
+  public static class AuthenticationEvent extends Event {
+    @Label("Request Id")
+    String requestId;
+    @Label("Outcome")
+    String outcome;
+  }
+
+  @Name("com.eformsign.UpstreamCall")
+  @Label("eformsign Call")
+  @Category({"eformsign", "Upstream"})
+  @StackTrace(false)
+  public static class UpstreamCallEvent extends Event {
+    @Label("Request Id")
+    String requestId;
+    @Label("Company")
+    String companyId;
+    @Label("Method")
+    String method;
+    @Label("Path")
+    String path;
+    @Label("Status")
+    int status;
+    @Label("Outcome")
+    String outcome;
+  }
+
+  @Name("com.eformsign.DatabaseCall")
+  @Label("Database Call")
+  @Category({"eformsign", "Database"})
+  @StackTrace(false)
+  public static class DatabaseCallEvent extends Event {
+    @Label("Request Id")
+    String requestId;
+    @Label("Operation")
+    String operation;
+  }
+
+  @Name("com.eformsign.Serialization")
+  @Label("Response Serialization")
+  @Category({"eformsign", "Requests"})
+  @StackTrace(false)
+  public static class SerializationEvent extends Event {
+    @Label("Request Id")
+    String requestId;
+    @Label("Type")
+    String type;
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+  }
+}
@@ -0,0 +1,58 @@
+package com.eformsign.api.profiling;
+
+import com.eformsign.api.config.auth.AuthPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Outermost filter: gives every request an id (the caller's X-Request-Id when it sends a sane one),
+// echoes it back and records the request's HttpRequestEvent. Async requests (event streams) are
+// recorded up to the end of their first dispatch.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+  public static final String REQUEST_ID_HEADER = "X-Request-Id";
+  private static final int MAX_REQUEST_ID_LENGTH = 64;
+  private static final String MDC_REQUEST_ID = "requestId";
+
+  // Unique per process start, so ids from different replicas don't collide
+  private final String prefix = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+  private final AtomicLong sequence = new AtomicLong();
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    String requestId = request.getHeader(REQUEST_ID_HEADER);
+    if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+      requestId = prefix + "-" + Long.toString(sequence.incrementAndGet(), 36);
+    }
+    request.setAttribute(ProfilingEvents.REQUEST_ID_ATTRIBUTE, requestId);
+    MDC.put(MDC_REQUEST_ID, requestId); // A field of every JSON log line written for this request
+    response.setHeader(REQUEST_ID_HEADER, requestId);
+
+    ProfilingEvents.HttpRequestEvent event = ProfilingEvents.startRequest();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      ProfilingEvents.endRequest(event, requestId, request.getMethod(), request.getRequestURI(),
+          response.getStatus(), loginIdOf(request), request.isAsyncStarted());
+      MDC.remove(MDC_REQUEST_ID);
+    }
+  }
+
+  private static String loginIdOf(HttpServletRequest request) {
+    AuthPrincipal principal = (AuthPrincipal) request.getAttribute(AuthPrincipal.ATTRIBUTE);
+    return principal != null ? principal.getLoginId() : null;
+  }
+}
@@ -0,0 +1,35 @@
+package com.eformsign.api.repository;
+
+import com.eformsign.common.entity.BulkSendItem;
+import com.eformsign.common.type.BulkSendItemStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BulkSendItemRepository extends JpaRepository<BulkSendItem, Long> {
+
+  @Query("select i.id from BulkSendItem i where i.status = :status and i.nextAttemptAt <= :now order by i.id")
+  List<Long> findDueIds(@Param("status") BulkSendItemStatus status, @Param("now") LocalDateTime now,
+      Pageable page);
+
+  // 0 when another dispatcher (another replica) claimed the item first
+  @Modifying
+  @Query("update BulkSendItem i set i.status = com.eformsign.common.type.BulkSendItemStatus.SENDING,"
+      + " i.attempts = i.attempts + 1, i.updatedAt = :now"
+      + " where i.id = :id and i.status = com.eformsign.common.type.BulkSendItemStatus.PENDING")
+  int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+  List<BulkSendItem> findByJobIdOrderById(Long jobId, Pageable page);
+
+  List<BulkSendItem> findByJobIdAndStatusOrderById(Long jobId, BulkSendItemStatus status, Pageable page);
+
+  @Query("select i.status, count(i) from BulkSendItem i where i.jobId = :jobId group by i.status")
+  List<Object[]> countByStatus(@Param("jobId") Long jobId);
+
+  List<BulkSendItem> findByStatus(BulkSendItemStatus status);
+}
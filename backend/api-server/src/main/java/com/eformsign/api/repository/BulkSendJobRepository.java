@@ -0,0 +1,23 @@
+package com.eformsign.api.repository;
+
+import com.eformsign.common.entity.BulkSendJob;
+import com.eformsign.common.type.BulkSendJobStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BulkSendJobRepository extends JpaRepository<BulkSendJob, Long> {
+  Optional<BulkSendJob> findByMemberIdAndIdempotencyKey(String memberId, String idempotencyKey);
+
+  List<BulkSendJob> findByStatusIn(Collection<BulkSendJobStatus> statuses);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select j from BulkSendJob j where j.id = :id")
+  Optional<BulkSendJob> findByIdForUpdate(@Param("id") Long id);
+}
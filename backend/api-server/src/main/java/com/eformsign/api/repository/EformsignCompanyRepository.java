@@ -0,0 +1,7 @@
+package com.eformsign.api.repository;
+
+import com.eformsign.common.entity.EformsignCompany;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EformsignCompanyRepository extends JpaRepository<EformsignCompany, String> {
+}
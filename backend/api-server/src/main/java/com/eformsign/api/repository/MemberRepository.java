@@ -2,9 +2,20 @@ package com.eformsign.api.repository;
 
 import com.eformsign.common.entity.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface MemberRepository extends JpaRepository<Member, Long> {
   Optional<Member> findByLoginId(String loginId);
+
+  // companyId null: the default company
+  @Query("select m from Member m where m.companyId = :companyId or (:companyId is null and m.companyId is null)")
+  List<Member> findByCompany(@Param("companyId") String companyId);
+
+  @Query("select m.loginId from Member m where m.loginId in :loginIds")
+  List<String> findExistingLoginIds(@Param("loginIds") Collection<String> loginIds);
 }
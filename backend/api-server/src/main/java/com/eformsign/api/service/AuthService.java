@@ -1,13 +1,23 @@
 package com.eformsign.api.service;
 
+import com.eformsign.api.profiling.ProfilingEvents;
 import com.eformsign.api.repository.MemberRepository;
 import com.eformsign.common.entity.Member;
 import com.eformsign.common.type.MemberRole;
 import com.eformsign.common.util.JwtProvider;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
@@ -15,6 +25,9 @@ public class AuthService {
 
   private final MemberRepository memberRepository;
   private final JwtProvider jwtProvider;
+  private final PasswordHashingService passwordHashingService;
+  private final MeterRegistry meterRegistry;
+  private final TokenRevocationList revocationList;
 
   @Value("${app.admin.id}")
   private String adminId;
@@ -22,21 +35,137 @@ public class AuthService {
   @Value("${app.admin.password}")
   private String adminPassword;
 
-  @Transactional(readOnly = true)
-  public String login(String loginId, String password) {
-    // 1. Check Config-based Admin
-    if (adminId.equals(loginId) && adminPassword.equals(password)) {
-      return jwtProvider.createToken(loginId, MemberRole.MANAGER);
+  @Value("${app.auth.login-slo:300ms}")
+  private Duration loginSlo;
+
+  private Timer successTimer;
+  private Timer invalidTimer;
+  private Timer rejectedTimer;
+  private Counter refreshSuccess;
+  private Counter refreshRejected;
+
+  @PostConstruct
+  void init() {
+    successTimer = loginTimer("success");
+    invalidTimer = loginTimer("invalid");
+    rejectedTimer = loginTimer("rejected");
+    refreshSuccess = meterRegistry.counter("auth.refresh", "outcome", "success");
+    refreshRejected = meterRegistry.counter("auth.refresh", "outcome", "rejected");
+  }
+
+  // Not @Transactional: the lookup uses its own short read, so no connection is held while hashing
+  public TokenPair login(String loginId, String password) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    Timer timer = invalidTimer;
+    try {
+      // 1. Check Config-based Admin
+      if (adminId.equals(loginId) && adminPassword.equals(password)) {
+        timer = successTimer;
+        return issueTokens(loginId, MemberRole.MANAGER, null, null);
+      }
+
+      // 2. Check DB-based Member
+      if (loginId == null || password == null) {
+        throw new IllegalArgumentException("Invalid ID or Password");
+      }
+      Member member = ProfilingEvents.database("members.findByLoginId",
+          () -> memberRepository.findByLoginId(loginId)).orElse(null);
+      if (member == null) {
+        // Pays the same hash as a known id, so response times don't reveal which login ids exist
+        passwordHashingService.matchesNothing(password);
+        throw new IllegalArgumentException("Invalid ID or Password");
+      }
+
+      if (!passwordHashingService.matches(password, member.getPassword())) {
+        throw new IllegalArgumentException("Invalid ID or Password");
+      }
+
+      timer = successTimer;
+      return issueTokens(member.getLoginId(), member.getRole(), member.getCompanyId(), null);
+    } catch (RejectedExecutionException e) {
+      timer = rejectedTimer;
+      throw e;
+    } finally {
+      sample.stop(timer);
+    }
+  }
+
+  // Signature check, the shared revocation list, then one members read for the current role and company
+  public TokenPair refresh(String refreshToken) {
+    Claims claims = refreshToken != null ? jwtProvider.parseClaims(refreshToken) : null;
+    if (claims == null || !JwtProvider.TYPE_REFRESH.equals(jwtProvider.getType(claims))) {
+      refreshRejected.increment();
+      throw new IllegalArgumentException("Invalid refresh token");
+    }
+
+    String family = jwtProvider.getFamily(claims);
+    if (revocationList.isRevoked(familyKey(family))) {
+      refreshRejected.increment();
+      throw new IllegalArgumentException("Invalid refresh token");
+    }
+
+    // Rotation: each refresh token is single-use
+    if (!revocationList.revoke(claims.getId(), claims.getExpiration().getTime())) {
+      // Replay of an already rotated token; assume it leaked and revoke the whole chain
+      revokeFamily(family);
+      refreshRejected.increment();
+      throw new IllegalArgumentException("Invalid refresh token");
+    }
+
+    // Role and company come from the members table, not the old token, so role changes (and deleted
+    // members) apply at the next refresh instead of living on through rotation
+    String subject = claims.getSubject();
+    if (adminId.equals(subject)) {
+      refreshSuccess.increment();
+      return issueTokens(subject, MemberRole.MANAGER, null, family);
+    }
+    Member member = ProfilingEvents.database("members.findByLoginId",
+        () -> memberRepository.findByLoginId(subject)).orElse(null);
+    if (member == null) {
+      revokeFamily(family);
+      refreshRejected.increment();
+      throw new IllegalArgumentException("Invalid refresh token");
+    }
+    refreshSuccess.increment();
+    return issueTokens(subject, member.getRole(), member.getCompanyId(), family);
+  }
+
+  public void logout(String refreshToken) {
+    Claims claims = refreshToken != null ? jwtProvider.parseClaims(refreshToken) : null;
+    if (claims != null && JwtProvider.TYPE_REFRESH.equals(jwtProvider.getType(claims))) {
+      revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+      revokeFamily(jwtProvider.getFamily(claims));
     }
+  }
 
-    // 2. Check DB-based Member
-    Member member = memberRepository.findByLoginId(loginId)
-        .orElseThrow(() -> new IllegalArgumentException("Invalid ID or Password"));
+  private TokenPair issueTokens(String subject, MemberRole role, String companyId, String family) {
+    return new TokenPair(jwtProvider.createToken(subject, role, companyId),
+        jwtProvider.createRefreshToken(subject, role, companyId, family));
+  }
 
-    if (!member.getPassword().equals(password)) {
-      throw new IllegalArgumentException("Invalid ID or Password");
+  private void revokeFamily(String family) {
+    if (family != null) {
+      revocationList.revoke(familyKey(family), System.currentTimeMillis() + jwtProvider.getRefreshTokenTtlMillis());
     }
+  }
+
+  private static String familyKey(String family) {
+    return "fam:" + family;
+  }
+
+  private Timer loginTimer(String outcome) {
+    return Timer.builder("auth.login")
+        .description("Login latency by outcome")
+        .tag("outcome", outcome)
+        .publishPercentiles(0.5, 0.99)
+        .serviceLevelObjectives(loginSlo)
+        .register(meterRegistry);
+  }
 
-    return jwtProvider.createToken(member.getLoginId(), MemberRole.MEMBER);
+  @Getter
+  @AllArgsConstructor
+  public static class TokenPair {
+    private final String accessToken;
+    private final String refreshToken;
   }
 }
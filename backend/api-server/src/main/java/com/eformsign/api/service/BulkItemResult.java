@@ -0,0 +1,24 @@
+package com.eformsign.api.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+// Outcome of one id in a bulk template/group call; a failed item never fails the whole request
+@Getter
+@AllArgsConstructor
+public class BulkItemResult {
+  private final String id;
+  private final boolean success;
+  private final Map<String, Object> data;
+  private final String error;
+
+  public static BulkItemResult ok(String id, Map<String, Object> data) {
+    return new BulkItemResult(id, true, data, null);
+  }
+
+  public static BulkItemResult failed(String id, String error) {
+    return new BulkItemResult(id, false, null, error);
+  }
+}
@@ -0,0 +1,259 @@
+package com.eformsign.api.service;
+
+import com.eformsign.api.repository.BulkSendItemRepository;
+import com.eformsign.api.repository.BulkSendJobRepository;
+import com.eformsign.common.entity.BulkSendItem;
+import com.eformsign.common.entity.BulkSendJob;
+import com.eformsign.common.type.BulkSendItemStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Persistence side of mass sends. Every state change is its own short transaction; the eformsign
+// calls happen in BulkSendWorker outside of them.
+@Slf4j
+@Service
+public class BulkSendService {
+
+  private final BulkSendJobRepository jobRepository;
+  private final BulkSendItemRepository itemRepository;
+  private final ObjectMapper objectMapper;
+  private final int maxRecipients;
+
+  public BulkSendService(BulkSendJobRepository jobRepository, BulkSendItemRepository itemRepository,
+      ObjectMapper objectMapper,
+      @Value("${bulk-send.max-recipients:1000}") int maxRecipients) {
+    this.jobRepository = jobRepository;
+    this.itemRepository = itemRepository;
+    this.objectMapper = objectMapper;
+    this.maxRecipients = maxRecipients;
+  }
+
+  @Transactional
+  public BulkSendJob submit(String memberId, String companyId, String idempotencyKey, String templateId,
+      String documentName, List<Recipient> recipients) {
+    if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+      Optional<BulkSendJob> existing = jobRepository.findByMemberIdAndIdempotencyKey(memberId, idempotencyKey);
+      if (existing.isPresent()) {
+        return existing.get();
+      }
+    } else {
+      idempotencyKey = null;
+    }
+    if (templateId == null || templateId.isBlank()) {
+      throw new IllegalArgumentException("templateId is required");
+    }
+    if (recipients == null || recipients.isEmpty()) {
+      throw new IllegalArgumentException("At least one recipient is required");
+    }
+    if (recipients.size() > maxRecipients) {
+      throw new IllegalArgumentException("Too many recipients: " + recipients.size() + " (max " + maxRecipients + ")");
+    }
+    for (Recipient recipient : recipients) {
+      if (recipient.getId() == null || recipient.getId().isBlank()) {
+        throw new IllegalArgumentException("Every recipient needs an id");
+      }
+    }
+
+    BulkSendJob job = jobRepository.save(BulkSendJob.builder()
+        .memberId(memberId)
+        .companyId(companyId)
+        .idempotencyKey(idempotencyKey)
+        .templateId(templateId)
+        .documentName(documentName != null && !documentName.isBlank() ? documentName : templateId)
+        .totalCount(recipients.size())
+        .build());
+
+    List<BulkSendItem> items = new ArrayList<>(recipients.size());
+    for (int i = 0; i < recipients.size(); i++) {
+      Recipient recipient = recipients.get(i);
+      items.add(BulkSendItem.builder()
+          .jobId(job.getId())
+          .idempotencyKey("bulk-" + job.getId() + "-" + i)
+          .recipientId(recipient.getId())
+          .recipientName(recipient.getName())
+          .fields(writeFields(recipient.getFields()))
+          .build());
+    }
+    itemRepository.saveAll(items);
+    log.info("Queued bulk send job {} ({} recipients, template {})", job.getId(), items.size(), templateId);
+    return job;
+  }
+
+  // Moves up to max due items to SENDING so no other pass picks them up. Each move is a conditional
+  // update (PENDING -> SENDING); an item another replica moved first counts 0 and is left to it.
+  @Transactional
+  public List<BulkSendItem> claim(int max) {
+    LocalDateTime now = LocalDateTime.now();
+    List<Long> claimed = new ArrayList<>();
+    for (Long id : itemRepository.findDueIds(BulkSendItemStatus.PENDING, now, PageRequest.of(0, max))) {
+      if (itemRepository.claim(id, now) == 1) {
+        claimed.add(id);
+      }
+    }
+    if (claimed.isEmpty()) {
+      return List.of();
+    }
+    List<BulkSendItem> items = itemRepository.findAllById(claimed);
+    Set<Long> jobIds = new LinkedHashSet<>();
+    for (BulkSendItem item : items) {
+      jobIds.add(item.getJobId());
+    }
+    jobRepository.findAllById(jobIds).forEach(BulkSendJob::markRunning);
+    return items;
+  }
+
+  @Transactional
+  public void markSent(Long itemId, String documentId) {
+    itemRepository.findById(itemId).ifPresent(item -> {
+      item.markSent(documentId);
+      finishJobIfDone(item.getJobId());
+    });
+  }
+
+  @Transactional
+  public void markRetry(Long itemId, String error, LocalDateTime nextAttemptAt) {
+    itemRepository.findById(itemId).ifPresent(item -> item.markRetry(error, nextAttemptAt));
+  }
+
+  @Transactional
+  public void markFailed(Long itemId, String error) {
+    itemRepository.findById(itemId).ifPresent(item -> {
+      item.markFailed(error);
+      finishJobIfDone(item.getJobId());
+    });
+  }
+
+  @Transactional
+  public void markUnknown(Long itemId) {
+    itemRepository.findById(itemId).ifPresent(item -> {
+      item.markUnknown();
+      finishJobIfDone(item.getJobId());
+    });
+  }
+
+  // Items left in SENDING by a previous run may or may not exist upstream; never resend them blindly
+  @Transactional
+  public int recoverInterrupted() {
+    List<BulkSendItem> interrupted = itemRepository.findByStatus(BulkSendItemStatus.SENDING);
+    Set<Long> jobIds = new LinkedHashSet<>();
+    for (BulkSendItem item : interrupted) {
+      item.markUnknown();
+      jobIds.add(item.getJobId());
+    }
+    itemRepository.flush();
+    jobIds.forEach(this::finishJobIfDone);
+    return interrupted.size();
+  }
+
+  @Transactional(readOnly = true)
+  public Optional<BulkSendJob> findJob(Long jobId) {
+    return jobRepository.findById(jobId);
+  }
+
+  @Transactional(readOnly = true)
+  public Optional<BulkSendJob> findJob(String memberId, String idempotencyKey) {
+    return jobRepository.findByMemberIdAndIdempotencyKey(memberId, idempotencyKey);
+  }
+
+  @Transactional(readOnly = true)
+  public Progress getProgress(String memberId, Long jobId) {
+    BulkSendJob job = ownedJob(memberId, jobId);
+    return new Progress(job, countByStatus(jobId));
+  }
+
+  @Transactional(readOnly = true)
+  public List<BulkSendItem> getItems(String memberId, Long jobId, BulkSendItemStatus status, int page, int limit) {
+    ownedJob(memberId, jobId);
+    PageRequest pageRequest = PageRequest.of(Math.max(page - 1, 0), Math.min(Math.max(limit, 1), 500));
+    return status == null
+        ? itemRepository.findByJobIdOrderById(jobId, pageRequest)
+        : itemRepository.findByJobIdAndStatusOrderById(jobId, status, pageRequest);
+  }
+
+  public Map<String, String> readFields(BulkSendItem item) {
+    if (item.getFields() == null) {
+      return Map.of();
+    }
+    try {
+      return objectMapper.readValue(item.getFields(),
+          objectMapper.getTypeFactory().constructMapType(Map.class, String.class, String.class));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Corrupt field prefills on bulk send item " + item.getId(), e);
+    }
+  }
+
+  private BulkSendJob ownedJob(String memberId, Long jobId) {
+    return jobRepository.findById(jobId)
+        .filter(job -> job.getMemberId().equals(memberId))
+        .orElseThrow(() -> new IllegalArgumentException("Bulk send job not found: " + jobId));
+  }
+
+  // The job row is locked before counting so the last two items finishing at once are counted one
+  // after the other; otherwise each sees the other still SENDING and the job stays RUNNING
+  private void finishJobIfDone(Long jobId) {
+    Optional<BulkSendJob> job = jobRepository.findByIdForUpdate(jobId);
+    if (job.isEmpty()) {
+      return;
+    }
+    Map<BulkSendItemStatus, Long> counts = countByStatus(jobId);
+    if (counts.get(BulkSendItemStatus.PENDING) == 0 && counts.get(BulkSendItemStatus.SENDING) == 0) {
+      job.get().markFinished(counts.get(BulkSendItemStatus.FAILED) + counts.get(BulkSendItemStatus.UNKNOWN) > 0);
+    }
+  }
+
+  private Map<BulkSendItemStatus, Long> countByStatus(Long jobId) {
+    Map<BulkSendItemStatus, Long> counts = new EnumMap<>(BulkSendItemStatus.class);
+    for (BulkSendItemStatus status : BulkSendItemStatus.values()) {
+      counts.put(status, 0L);
+    }
+    for (Object[] row : itemRepository.countByStatus(jobId)) {
+      counts.put((BulkSendItemStatus) row[0], (Long) row[1]);
+    }
+    return counts;
+  }
+
+  private String writeFields(Map<String, String> fields) {
+    if (fields == null || fields.isEmpty()) {
+      return null;
+    }
+    try {
+      return objectMapper.writeValueAsString(fields);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Invalid field prefills", e);
+    }
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Recipient {
+    private String id;
+    private String name;
+    private Map<String, String> fields;
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class Progress {
+    private final BulkSendJob job;
+    private final Map<BulkSendItemStatus, Long> counts;
+  }
+}
@@ -0,0 +1,166 @@
+package com.eformsign.api.service;
+
+import com.eformsign.common.entity.BulkSendItem;
+import com.eformsign.common.entity.BulkSendJob;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains bulk_send_items: at most `concurrency` eformsign calls in flight and at most `rate-per-second`
+// started per second across all jobs. The table is the queue, so a restart picks up where it stopped.
+// Both limits are per replica: replicas share the queue (claims are conditional updates) but each paces
+// itself, so N replicas start up to N times rate-per-second. Size the setting for the replica count.
+//
+// Retries only happen when eformsign certainly did not create the document (connection refused,
+// 429, 503). Anything ambiguous ends as UNKNOWN instead of being resent, so retries never duplicate.
+@Slf4j
+@Component
+public class BulkSendWorker {
+
+  private final BulkSendService bulkSendService;
+  private final EformsignService eformsignService;
+  private final EformsignTenantRegistry tenants;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final long intervalNanos;
+  private final Semaphore slots;
+  private final ExecutorService executor;
+  private final AtomicLong nextStart = new AtomicLong(System.nanoTime());
+  private volatile boolean ready;
+
+  public BulkSendWorker(BulkSendService bulkSendService, EformsignService eformsignService,
+      EformsignTenantRegistry tenants,
+      @Value("${bulk-send.concurrency:4}") int concurrency,
+      @Value("${bulk-send.rate-per-second:5}") double ratePerSecond,
+      @Value("${bulk-send.max-attempts:5}") int maxAttempts,
+      @Value("${bulk-send.retry-backoff:10s}") Duration retryBackoff) {
+    this.bulkSendService = bulkSendService;
+    this.eformsignService = eformsignService;
+    this.tenants = tenants;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoff = retryBackoff;
+    this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    this.slots = new Semaphore(concurrency);
+    AtomicInteger seq = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+      Thread t = new Thread(r, "bulk-send-" + seq.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    int interrupted = bulkSendService.recoverInterrupted();
+    if (interrupted > 0) {
+      log.warn("{} bulk send items were in flight at the last shutdown and are marked UNKNOWN", interrupted);
+    }
+    ready = true;
+  }
+
+  @Scheduled(fixedDelayString = "${bulk-send.poll-interval-ms:1000}")
+  public void dispatch() {
+    int free = slots.availablePermits();
+    if (!ready || free == 0) {
+      return;
+    }
+    List<BulkSendItem> items = bulkSendService.claim(free);
+    for (BulkSendItem item : items) {
+      slots.acquireUninterruptibly();
+      executor.execute(() -> {
+        try {
+          send(item);
+        } finally {
+          slots.release();
+        }
+      });
+    }
+  }
+
+  private void send(BulkSendItem item) {
+    try {
+      pace();
+      BulkSendJob job = bulkSendService.findJob(item.getJobId()).orElseThrow();
+      Map<String, String> recipient = new HashMap<>();
+      recipient.put("id", item.getRecipientId());
+      recipient.put("name", item.getRecipientName());
+      Map<String, Object> result = tenants.callAs(job.getCompanyId(), () -> eformsignService.createDocument(
+          job.getMemberId(), job.getTemplateId(), job.getDocumentName(), List.of(recipient),
+          bulkSendService.readFields(item)));
+      bulkSendService.markSent(item.getId(), EformsignService.documentIdOf(result));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      bulkSendService.markRetry(item.getId(), "Interrupted before sending", LocalDateTime.now());
+    } catch (Exception e) {
+      handleFailure(item, e);
+    }
+  }
+
+  private void handleFailure(BulkSendItem item, Exception e) {
+    // 429 is a 4xx too, but a retryable one: checked before isRejected
+    if (isNotProcessed(e) && item.getAttempts() < maxAttempts) {
+      // Exponential backoff: base, 2x, 4x ... capped at 32x
+      long delayMillis = retryBackoff.toMillis() << Math.min(item.getAttempts() - 1, 5);
+      log.debug("Bulk send item {} will retry in {} ms: {}", item.getId(), delayMillis, e.getMessage());
+      bulkSendService.markRetry(item.getId(), e.getMessage(), LocalDateTime.now().plusNanos(delayMillis * 1_000_000));
+    } else if (isNotProcessed(e)) {
+      bulkSendService.markFailed(item.getId(), "Gave up after " + item.getAttempts() + " attempts: " + e.getMessage());
+    } else if (isRejected(e)) {
+      bulkSendService.markFailed(item.getId(), e.getMessage());
+    } else {
+      log.warn("Bulk send item {} ended in an unknown state", item.getId(), e);
+      bulkSendService.markUnknown(item.getId());
+    }
+  }
+
+  // eformsign never created the document: safe to resend
+  private static boolean isNotProcessed(Exception e) {
+    if (e instanceof WebClientResponseException) {
+      int status = ((WebClientResponseException) e).getStatusCode().value();
+      return status == 429 || status == 503;
+    }
+    return e instanceof WebClientRequestException && e.getCause() instanceof ConnectException;
+  }
+
+  // eformsign refused the request outright (bad template, recipient, fields)
+  private static boolean isRejected(Exception e) {
+    return e instanceof WebClientResponseException
+        && ((WebClientResponseException) e).getStatusCode().is4xxClientError();
+  }
+
+  // Spaces call starts intervalNanos apart across this replica's worker threads
+  private void pace() throws InterruptedException {
+    long now = System.nanoTime();
+    long slot = nextStart.getAndAccumulate(now, (previous, current) -> Math.max(previous, current) + intervalNanos);
+    long wait = Math.max(slot, now) - now;
+    if (wait > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    ready = false;
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,86 @@
+package com.eformsign.api.service;
+
+import com.eformsign.api.event.DocumentStatusChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// One poller per company instead of every open tab re-listing documents. Lists the most recent
+// documents as the admin, diffs their status against the previous pass and publishes
+// DocumentStatusChangedEvent for changes. Only runs while someone is subscribed to the event stream;
+// deployments with the eformsign webhook configured can turn it off.
+@Slf4j
+@Service
+public class DocumentChangeDetector {
+
+  private final EformsignService eformsignService;
+  private final DocumentEventHub eventHub;
+  private final ApplicationEventPublisher eventPublisher;
+  private final String adminId;
+  private final boolean enabled;
+  private final List<String> types;
+  private final int window;
+
+  private Map<String, String> lastStatuses;
+
+  public DocumentChangeDetector(EformsignService eformsignService, DocumentEventHub eventHub,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${app.admin.id}") String adminId,
+      @Value("${eformsign.events.poll-enabled:true}") boolean enabled,
+      @Value("${eformsign.events.poll-types:04}") String types,
+      @Value("${eformsign.events.poll-window:50}") int window) {
+    this.eformsignService = eformsignService;
+    this.eventHub = eventHub;
+    this.eventPublisher = eventPublisher;
+    this.adminId = adminId;
+    this.enabled = enabled;
+    this.types = Arrays.stream(types.split(",")).map(String::trim).filter(t -> !t.isEmpty()).toList();
+    this.window = window;
+  }
+
+  @Scheduled(fixedDelayString = "${eformsign.events.poll-interval-ms:15000}",
+      initialDelayString = "${eformsign.events.poll-interval-ms:15000}")
+  public void poll() {
+    if (!enabled || !eventHub.hasSubscribers(null)) {
+      // Start from a fresh baseline when subscribers come back; stale diffs would replay old changes
+      lastStatuses = null;
+      return;
+    }
+    Map<String, String> statuses = new HashMap<>();
+    Map<String, Map<String, Object>> documents = new HashMap<>();
+    try {
+      for (String type : types) {
+        Map<String, Object> page = eformsignService.getDocuments(adminId, type, null, null, 1, window);
+        List<Map<String, Object>> list = JsonMaps.listOf(page.get("documents"));
+        if (list != null) {
+          for (Map<String, Object> doc : list) {
+            String id = String.valueOf(doc.get("id"));
+            statuses.put(id, EformsignService.statusTypeOf(doc));
+            documents.put(id, doc);
+          }
+        }
+      }
+    } catch (Exception e) {
+      log.warn("Document change poll failed: {}", e.getMessage());
+      return;
+    }
+
+    Map<String, String> previous = lastStatuses;
+    lastStatuses = statuses;
+    if (previous == null) {
+      return;
+    }
+    statuses.forEach((id, status) -> {
+      if (!previous.containsKey(id) || !String.valueOf(status).equals(String.valueOf(previous.get(id)))) {
+        eventPublisher.publishEvent(new DocumentStatusChangedEvent(null, id, status, documents.get(id)));
+      }
+    });
+  }
+}
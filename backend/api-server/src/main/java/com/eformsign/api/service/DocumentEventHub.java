@@ -0,0 +1,280 @@
+package com.eformsign.api.service;
+
+import com.eformsign.api.event.DocumentStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fans document status changes out to open /api/v1/events/documents streams of the document's company:
+// to the people the event names (creator, last editor, current step recipients), or to the whole company
+// when it names nobody. Streams are servlet async requests: an idle subscriber costs a socket and an
+// SseEmitter, not a thread.
+//
+// The dispatcher thread only routes and queues; each stream has a small buffer drained by a sender pool.
+// A stream whose buffer overflows, or whose current write has been stuck past send-timeout, is dropped
+// (the client reconnects), so one slow client never holds up the others, the webhook or the change detector.
+@Slf4j
+@Service
+public class DocumentEventHub {
+
+  private final Map<String, Set<Stream>> subscribers = new ConcurrentHashMap<>();
+  private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "sse-dispatch");
+    t.setDaemon(true);
+    return t;
+  });
+  private final ExecutorService senders;
+  private final EformsignTenantRegistry tenants;
+  private final long streamTimeoutMillis;
+  private final int maxStreamsPerMember;
+  private final int streamBuffer;
+  private final long sendTimeoutNanos;
+  private final Counter dropped;
+
+  public DocumentEventHub(
+      EformsignTenantRegistry tenants,
+      MeterRegistry meterRegistry,
+      @Value("${eformsign.events.stream-timeout:30m}") Duration streamTimeout,
+      @Value("${eformsign.events.max-streams-per-member:8}") int maxStreamsPerMember,
+      @Value("${eformsign.events.stream-buffer:32}") int streamBuffer,
+      @Value("${eformsign.events.send-timeout:10s}") Duration sendTimeout,
+      @Value("${eformsign.events.sender-threads:4}") int senderThreads) {
+    this.tenants = tenants;
+    this.streamTimeoutMillis = streamTimeout.toMillis();
+    this.maxStreamsPerMember = maxStreamsPerMember;
+    this.streamBuffer = streamBuffer;
+    this.sendTimeoutNanos = sendTimeout.toNanos();
+    AtomicInteger seq = new AtomicInteger();
+    this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+      Thread t = new Thread(r, "sse-send-" + seq.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+    this.dropped = Counter.builder("sse.dropped").description("Streams dropped for falling behind")
+        .register(meterRegistry);
+    Gauge.builder("sse.subscribers", this, DocumentEventHub::subscriberCount).register(meterRegistry);
+  }
+
+  // Returns null when the member already has the maximum number of open streams
+  public SseEmitter subscribe(String companyId, String memberId) {
+    // Clients reconnect on timeout; the timeout just bounds how long a vanished client lingers
+    Stream stream = new Stream(tenants.canonicalCompanyId(companyId), memberId,
+        new SseEmitter(streamTimeoutMillis), streamBuffer);
+    AtomicBoolean added = new AtomicBoolean();
+    subscribers.compute(memberId, (k, streams) -> {
+      Set<Stream> current = streams != null ? streams : ConcurrentHashMap.newKeySet();
+      if (current.size() < maxStreamsPerMember) {
+        added.set(current.add(stream));
+      }
+      return current.isEmpty() ? null : current;
+    });
+    if (!added.get()) {
+      return null;
+    }
+    Runnable remove = () -> unsubscribe(stream);
+    stream.emitter.onCompletion(remove);
+    stream.emitter.onTimeout(remove);
+    stream.emitter.onError(error -> remove.run());
+    dispatcher.execute(() -> enqueue(stream, SseEmitter.event().name("ready").data("ok").build()));
+    return stream.emitter;
+  }
+
+  public boolean hasSubscribers(String companyId) {
+    String company = tenants.canonicalCompanyId(companyId);
+    return subscribers.values().stream().flatMap(Set::stream).anyMatch(s -> Objects.equals(s.companyId, company));
+  }
+
+  public int subscriberCount() {
+    return subscribers.values().stream().mapToInt(Set::size).sum();
+  }
+
+  // Only the id and status go out; clients re-read what they display through the normal API,
+  // which applies their own permissions.
+  @EventListener
+  public void onDocumentStatusChanged(DocumentStatusChangedEvent event) {
+    if (subscribers.isEmpty() || event.getDocumentId() == null) {
+      return;
+    }
+    String companyId = tenants.canonicalCompanyId(event.getCompanyId());
+    Set<String> audience = audienceOf(event.getPayload());
+    Map<String, Object> data = new HashMap<>();
+    data.put("documentId", event.getDocumentId());
+    data.put("statusType", event.getStatusType());
+    Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event().name("document-status")
+        .id(event.getDocumentId()).data(data).build();
+    dispatcher.execute(() -> {
+      if (audience.isEmpty()) {
+        subscribers.values().forEach(streams -> enqueue(streams, companyId, message));
+      } else {
+        for (String memberId : audience) {
+          Set<Stream> streams = subscribers.get(memberId);
+          if (streams != null) {
+            enqueue(streams, companyId, message);
+          }
+        }
+      }
+    });
+  }
+
+  // Keeps proxies from closing idle streams, detects clients that went away and drops stuck ones
+  @Scheduled(fixedDelayString = "${eformsign.events.heartbeat-ms:25000}")
+  public void heartbeat() {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+    long now = System.nanoTime();
+    dispatcher.execute(() -> subscribers.values().forEach(streams -> {
+      for (Stream stream : streams) {
+        long started = stream.sendStartedAt;
+        if (started != 0 && now - started > sendTimeoutNanos) {
+          drop(stream, "write stuck for over " + Duration.ofNanos(sendTimeoutNanos).toSeconds() + "s");
+        } else {
+          enqueue(stream, ping);
+        }
+      }
+    }));
+  }
+
+  private void enqueue(Set<Stream> streams, String companyId, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+    for (Stream stream : streams) {
+      if (Objects.equals(stream.companyId, companyId)) {
+        enqueue(stream, message);
+      }
+    }
+  }
+
+  private void enqueue(Stream stream, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+    if (!stream.queue.offer(message)) {
+      drop(stream, "fell " + streamBuffer + " events behind");
+      return;
+    }
+    if (stream.draining.compareAndSet(false, true)) {
+      senders.execute(() -> drain(stream));
+    }
+  }
+
+  private void drain(Stream stream) {
+    while (true) {
+      if (stream.closed) {
+        stream.queue.clear();
+        stream.emitter.complete();
+        return;
+      }
+      Set<ResponseBodyEmitter.DataWithMediaType> message = stream.queue.poll();
+      if (message == null) {
+        stream.draining.set(false);
+        // An enqueue between poll and set saw draining still true and left the message to us
+        if ((stream.queue.isEmpty() && !stream.closed) || !stream.draining.compareAndSet(false, true)) {
+          return;
+        }
+        continue;
+      }
+      stream.sendStartedAt = System.nanoTime();
+      try {
+        stream.emitter.send(message);
+      } catch (IOException | IllegalStateException e) {
+        log.debug("Dropping event stream for {}: {}", stream.memberId, e.getMessage());
+        unsubscribe(stream);
+        stream.emitter.completeWithError(e);
+        stream.queue.clear();
+      } finally {
+        stream.sendStartedAt = 0;
+      }
+    }
+  }
+
+  // The emitter is completed by the stream's own sender, never here: completing waits on a write in
+  // progress, and the dispatcher must not wait on a slow client
+  private void drop(Stream stream, String reason) {
+    if (unsubscribe(stream)) {
+      dropped.increment();
+      log.info("Dropping slow event stream for {}: {}", stream.memberId, reason);
+      stream.closed = true;
+      if (stream.draining.compareAndSet(false, true)) {
+        senders.execute(() -> drain(stream));
+      }
+    }
+  }
+
+  private boolean unsubscribe(Stream stream) {
+    AtomicBoolean removed = new AtomicBoolean();
+    subscribers.computeIfPresent(stream.memberId, (k, streams) -> {
+      removed.set(streams.remove(stream));
+      return streams.isEmpty() ? null : streams;
+    });
+    return removed.get();
+  }
+
+  // eformsign member ids the document payload names; empty when it names nobody
+  private static Set<String> audienceOf(Map<String, Object> document) {
+    Set<String> audience = new LinkedHashSet<>();
+    if (document == null) {
+      return audience;
+    }
+    addId(audience, document.get("creator"));
+    addId(audience, document.get("last_editor"));
+    Object status = document.get("current_status");
+    if (status instanceof Map && ((Map<?, ?>) status).get("step_recipients") instanceof List) {
+      for (Object recipient : (List<?>) ((Map<?, ?>) status).get("step_recipients")) {
+        addId(audience, recipient);
+      }
+    }
+    return audience;
+  }
+
+  private static void addId(Set<String> audience, Object member) {
+    if (member instanceof Map && ((Map<?, ?>) member).get("id") != null) {
+      audience.add(((Map<?, ?>) member).get("id").toString());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    dispatcher.shutdownNow();
+    senders.shutdownNow();
+    subscribers.values().forEach(streams -> streams.forEach(stream -> stream.emitter.complete()));
+    subscribers.clear();
+  }
+
+  private static final class Stream {
+    private final String companyId; // canonical: null is the default company
+    private final String memberId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile long sendStartedAt; // 0 while no write is in progress
+    private volatile boolean closed;
+
+    private Stream(String companyId, String memberId, SseEmitter emitter, int buffer) {
+      this.companyId = companyId;
+      this.memberId = memberId;
+      this.emitter = emitter;
+      this.queue = new ArrayBlockingQueue<>(buffer);
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package com.eformsign.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Document exports (e.g. for payroll), written row by row while EformsignService.streamDocuments is still
+// fetching, so memory stays flat regardless of how many documents match.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentExportService {
+
+  private static final Set<String> FORMATS = Set.of("csv", "ndjson");
+  private static final List<String> CSV_COLUMNS = List.of(
+      "id", "document_name", "template_id", "template_name", "status_type", "created_date", "updated_date");
+  private static final int PREFETCH_ROWS = 32;
+  private static final int FLUSH_EVERY = 100;
+
+  private final EformsignService eformsignService;
+  private final ObjectMapper objectMapper;
+
+  // fieldIds: CSV field columns; null takes them from the first document that has details. Failed documents
+  // before it ({id, export_error} only) wait in memory until the header is known.
+  public void export(String memberId, String type, String documentName, String templateId, String format,
+      String fieldIds, HttpServletResponse response) throws IOException {
+    if (!FORMATS.contains(format)) {
+      throw new IllegalArgumentException("Unknown export format: " + format + " (allowed: " + FORMATS + ")");
+    }
+    boolean csv = "csv".equals(format);
+    List<String> fields = fieldIds == null || fieldIds.isBlank() ? null
+        : Arrays.stream(fieldIds.split(",")).map(String::trim).filter(id -> !id.isEmpty()).toList();
+
+    response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment().filename("documents." + format).build().toString());
+
+    Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    long rows = 0;
+    boolean headerWritten = false;
+    List<Map<String, Object>> failedBeforeHeader = new ArrayList<>();
+    // Closing the stream cancels the upstream paging if the client goes away
+    try (Stream<Map<String, Object>> documents = eformsignService
+        .streamDocuments(memberId, type, documentName, templateId)
+        .toStream(PREFETCH_ROWS)) {
+      for (Map<String, Object> document : (Iterable<Map<String, Object>>) documents::iterator) {
+        if (csv) {
+          if (!headerWritten) {
+            if (fields == null && document.containsKey("export_error")) {
+              failedBeforeHeader.add(document);
+              rows++;
+              continue;
+            }
+            if (fields == null) {
+              fields = new ArrayList<>(fieldValues(document).keySet());
+            }
+            writeHeader(out, fields);
+            headerWritten = true;
+            for (Map<String, Object> failed : failedBeforeHeader) {
+              writeCsvRow(out, csvRow(failed, fields));
+            }
+            failedBeforeHeader.clear();
+          }
+          writeCsvRow(out, csvRow(document, fields));
+        } else {
+          out.write(objectMapper.writeValueAsString(document));
+          out.write('\n');
+        }
+        if (++rows % FLUSH_EVERY == 0) {
+          out.flush();
+        }
+      }
+    }
+    if (csv && !headerWritten) {
+      List<String> columns = fields != null ? fields : List.of();
+      writeHeader(out, columns);
+      for (Map<String, Object> failed : failedBeforeHeader) {
+        writeCsvRow(out, csvRow(failed, columns));
+      }
+    }
+    out.flush();
+    log.info("Exported {} documents as {} for {}", rows, format, memberId);
+  }
+
+  private static void writeHeader(Writer out, List<String> fields) throws IOException {
+    List<String> header = new ArrayList<>(CSV_COLUMNS);
+    header.add("export_error");
+    header.addAll(fields);
+    out.write('\uFEFF'); // BOM so Excel reads Korean text as UTF-8
+    writeCsvRow(out, header);
+  }
+
+  private static List<String> csvRow(Map<String, Object> document, List<String> fields) {
+    Map<String, Object> template = JsonMaps.mapOf(document.get("template"));
+    List<String> row = new ArrayList<>(CSV_COLUMNS.size() + 1 + fields.size());
+    row.add(text(document.get("id")));
+    row.add(text(document.get("document_name")));
+    row.add(text(template != null ? template.get("id") : null));
+    row.add(text(template != null ? template.get("name") : null));
+    row.add(text(EformsignService.statusTypeOf(document)));
+    row.add(text(document.get("created_date")));
+    row.add(text(document.get("updated_date")));
+    row.add(text(document.get("export_error")));
+    Map<String, Object> values = fieldValues(document);
+    for (String field : fields) {
+      row.add(text(values.get(field)));
+    }
+    return row;
+  }
+
+  // eformsign fields: [{id, value, ...}]
+  private static Map<String, Object> fieldValues(Map<String, Object> document) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    List<Map<String, Object>> fields = JsonMaps.listOf(document.get("fields"));
+    if (fields != null) {
+      for (Map<String, Object> field : fields) {
+        if (field.get("id") != null) {
+          values.put(field.get("id").toString(), field.get("value"));
+        }
+      }
+    }
+    return values;
+  }
+
+  private static void writeCsvRow(Writer out, List<String> values) throws IOException {
+    for (int i = 0; i < values.size(); i++) {
+      if (i > 0) {
+        out.write(',');
+      }
+      String value = neutralizeFormula(values.get(i));
+      if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+          || value.indexOf('\r') >= 0) {
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+      } else {
+        out.write(value);
+      }
+    }
+    out.write("\r\n");
+  }
+
+  // Spreadsheet apps run a cell starting with one of these as a formula (CSV injection); the quote makes it text
+  private static String neutralizeFormula(String value) {
+    if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+      return "'" + value;
+    }
+    return value;
+  }
+
+  private static String text(Object value) {
+    return value != null ? value.toString() : "";
+  }
+}
@@ -0,0 +1,148 @@
+package com.eformsign.api.service;
+
+import com.eformsign.storage.CachedFile;
+import com.eformsign.storage.FileCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Document file downloads. Files of finished documents are written through to the on-disk FileCache
+// while streaming and served from it afterwards, so each file is fetched from eformsign once.
+// Files of in-flight documents can still change and are only streamed through.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentFileService {
+
+  private static final Set<String> FILE_TYPES = Set.of("document", "audit_trail");
+  // Cheapest upstream read that still tells us the status and whether the member may see the document
+  private static final DocumentProjection STATUS_ONLY = DocumentProjection.parse(null, null, "id,current_status");
+  private static final int PREFETCH_BUFFERS = 16;
+
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private final EformsignService eformsignService;
+  private final FileCache fileCache;
+
+  public void download(String memberId, String documentId, String fileType, HttpServletRequest request,
+      HttpServletResponse response) throws IOException {
+    if (!FILE_TYPES.contains(fileType)) {
+      throw new IllegalArgumentException("Unknown file type: " + fileType + " (allowed: " + FILE_TYPES + ")");
+    }
+    Map<String, Object> document = eformsignService.getDocument(memberId, documentId, STATUS_ONLY);
+    boolean cacheable = eformsignService.isFinal(document);
+    String key = "documents/" + documentId + "/" + fileType;
+
+    if (cacheable) {
+      Optional<CachedFile> cached = fileCache.get(key);
+      Optional<Path> pin = cached.isPresent() ? fileCache.pin(cached.get()) : Optional.empty();
+      if (pin.isPresent()) {
+        serveCached(cached.get(), pin.get(), request, response);
+        return;
+      }
+    }
+
+    ResponseEntity<Flux<DataBuffer>> upstream = eformsignService.downloadDocumentFile(memberId, documentId, fileType);
+    if (upstream == null || upstream.getBody() == null) {
+      throw new IllegalStateException("Empty download response for document " + documentId);
+    }
+    HttpHeaders headers = upstream.getHeaders();
+    String contentType = headers.getContentType() != null ? headers.getContentType().toString()
+        : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    String fileName = headers.getContentDisposition().getFilename();
+    if (fileName == null) {
+      fileName = documentId + "_" + fileType + ".pdf";
+    }
+
+    writeHeaders(response, contentType, fileName, headers.getContentLength());
+    FileCache.Writer writer = cacheable ? fileCache.writer(key, contentType, fileName) : null;
+    try {
+      OutputStream out = response.getOutputStream();
+      WritableByteChannel target = Channels.newChannel(out);
+      // Closing the stream cancels the upstream read if the client goes away; prefetched buffers are released
+      Flux<DataBuffer> body = upstream.getBody().doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+      try (Stream<DataBuffer> buffers = body.toStream(PREFETCH_BUFFERS)) {
+        for (DataBuffer buffer : (Iterable<DataBuffer>) buffers::iterator) {
+          try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+            while (chunks.hasNext()) {
+              ByteBuffer chunk = chunks.next();
+              if (writer != null) {
+                writer.write(chunk.duplicate());
+              }
+              target.write(chunk);
+            }
+          } finally {
+            DataBufferUtils.release(buffer);
+          }
+        }
+      }
+      out.flush();
+      if (writer != null) {
+        writer.commit();
+        writer = null;
+      }
+    } finally {
+      if (writer != null) {
+        writer.abort();
+      }
+    }
+  }
+
+  // Served from the pin, not the blob, so eviction cannot delete the file while it is being sent
+  private void serveCached(CachedFile file, Path pin, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    writeHeaders(response, file.getContentType(), file.getFileName(), file.getSize());
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      // Tomcat writes the file with sendfile(2) after the handler returns: no user-space copy at all.
+      // It opens the pin only after the request is torn down and reports no completion, so the pin is
+      // left for the cache to purge; by then Tomcat holds it open until the send finishes.
+      request.setAttribute(SENDFILE_FILENAME, pin.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, 0L);
+      request.setAttribute(SENDFILE_END, file.getSize());
+      return;
+    }
+    try {
+      fileCache.transferTo(pin, Channels.newChannel(response.getOutputStream()));
+    } finally {
+      fileCache.release(pin);
+    }
+  }
+
+  private static void writeHeaders(HttpServletResponse response, String contentType, String fileName,
+      long contentLength) {
+    response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    if (contentLength >= 0) {
+      response.setContentLengthLong(contentLength);
+    }
+    if (fileName != null) {
+      ContentDisposition.Builder disposition = StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)
+          ? ContentDisposition.attachment().filename(fileName)
+          : ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8); // Korean file names
+      response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.build().toString());
+    }
+  }
+}
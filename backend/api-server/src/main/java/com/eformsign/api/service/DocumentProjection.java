@@ -0,0 +1,149 @@
+package com.eformsign.api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Which parts of a document a caller wants. Drives both the eformsign include_* flags and the
+// trimming of the response, so list-style consumers don't pay for histories they never read.
+//
+//   include = fields,histories,previous_status,next_status   (upstream sections; default all)
+//   fields  = field ids to keep in "fields"                   (default all)
+//   paths   = dot paths to keep, e.g. id,current_status.step_name,fields.value (default whole document)
+public class DocumentProjection {
+
+  public static final String FIELDS = "fields";
+  public static final String HISTORIES = "histories";
+  public static final String PREVIOUS_STATUS = "previous_status";
+  public static final String NEXT_STATUS = "next_status";
+
+  private static final List<String> SECTIONS = List.of(FIELDS, HISTORIES, PREVIOUS_STATUS, NEXT_STATUS);
+
+  public static final DocumentProjection FULL = new DocumentProjection(Set.copyOf(SECTIONS), null, null);
+
+  private static final Map<String, Object> WHOLE = Map.of();
+
+  private final Set<String> includes;
+  private final Set<String> fieldIds;
+  private final Map<String, Object> pathTree;
+
+  private DocumentProjection(Set<String> includes, Set<String> fieldIds, Map<String, Object> pathTree) {
+    this.includes = includes;
+    this.fieldIds = fieldIds;
+    this.pathTree = pathTree;
+  }
+
+  public static DocumentProjection parse(String include, String fields, String paths) {
+    if (isBlank(include) && isBlank(fields) && isBlank(paths)) {
+      return FULL;
+    }
+    Set<String> fieldIds = isBlank(fields) ? null : split(fields);
+    Map<String, Object> pathTree = isBlank(paths) ? null : buildTree(split(paths));
+
+    Set<String> includes = new LinkedHashSet<>();
+    if (!isBlank(include)) {
+      for (String section : split(include)) {
+        if (!SECTIONS.contains(section)) {
+          throw new IllegalArgumentException("Unknown include: " + section + " (allowed: " + SECTIONS + ")");
+        }
+        includes.add(section);
+      }
+    } else if (pathTree != null) {
+      // Only ask eformsign for the sections the paths actually reach
+      SECTIONS.stream().filter(pathTree::containsKey).forEach(includes::add);
+    } else {
+      includes.addAll(SECTIONS);
+    }
+    if (fieldIds != null) {
+      includes.add(FIELDS);
+    }
+    return new DocumentProjection(Set.copyOf(includes), fieldIds, pathTree);
+  }
+
+  public boolean includes(String section) {
+    return includes.contains(section);
+  }
+
+  // Part of the cache key: documents fetched with different include flags differ upstream
+  public String includeKey() {
+    StringBuilder key = new StringBuilder(SECTIONS.size());
+    for (String section : SECTIONS) {
+      key.append(includes.contains(section) ? '1' : '0');
+    }
+    return key.toString();
+  }
+
+  // Returns a trimmed copy; the source (possibly a cached document) is never modified
+  public Map<String, Object> apply(Map<String, Object> document) {
+    if (document == null || (fieldIds == null && pathTree == null)) {
+      return document;
+    }
+    Map<String, Object> result = new LinkedHashMap<>(document);
+    if (fieldIds != null && result.get(FIELDS) instanceof List) {
+      List<Object> kept = new ArrayList<>();
+      for (Object field : (List<?>) result.get(FIELDS)) {
+        if (field instanceof Map && fieldIds.contains(String.valueOf(((Map<?, ?>) field).get("id")))) {
+          kept.add(field);
+        }
+      }
+      result.put(FIELDS, kept);
+    }
+    return pathTree == null ? result : JsonMaps.mapOf(select(result, pathTree));
+  }
+
+  // Copies only the branches named in the tree; lists are projected element by element
+  private static Object select(Object source, Map<String, Object> tree) {
+    if (tree.isEmpty()) {
+      return source;
+    }
+    if (source instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) source;
+      Map<String, Object> selected = new LinkedHashMap<>();
+      tree.forEach((key, subtree) -> {
+        if (map.containsKey(key)) {
+          selected.put(key, select(map.get(key), JsonMaps.mapOf(subtree)));
+        }
+      });
+      return selected;
+    }
+    if (source instanceof List) {
+      List<Object> selected = new ArrayList<>();
+      for (Object element : (List<?>) source) {
+        selected.add(select(element, tree));
+      }
+      return selected;
+    }
+    return source;
+  }
+
+  // Leaves are the shared immutable empty map (keep the whole subtree); a shorter path wins over longer ones
+  private static Map<String, Object> buildTree(Set<String> paths) {
+    Map<String, Object> root = new LinkedHashMap<>();
+    for (String path : paths) {
+      String[] segments = path.split("\\.");
+      Map<String, Object> node = root;
+      for (int i = 0; i < segments.length && node != WHOLE; i++) {
+        if (i == segments.length - 1) {
+          node.put(segments[i], WHOLE);
+        } else {
+          node = JsonMaps.mapOf(node.computeIfAbsent(segments[i], k -> new LinkedHashMap<String, Object>()));
+        }
+      }
+    }
+    return root;
+  }
+
+  private static Set<String> split(String csv) {
+    Set<String> values = new LinkedHashSet<>();
+    Arrays.stream(csv.split(",")).map(String::trim).filter(v -> !v.isEmpty()).forEach(values::add);
+    return values;
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+}
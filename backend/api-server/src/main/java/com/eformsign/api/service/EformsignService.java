@@ -1,16 +1,34 @@
 package com.eformsign.api.service;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import com.eformsign.api.event.DocumentStatusChangedEvent;
+import com.eformsign.api.profiling.ProfilingEvents;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,31 +38,64 @@ import java.util.Collections;
 @Service
 public class EformsignService {
 
-  private final String apiKey;
-  private final String companyId;
-  private final String secretKey;
-  private final WebClient webClient;
+  private static final DocumentProjection EXPORT_PROJECTION = DocumentProjection.parse(DocumentProjection.FIELDS,
+      null, null);
+
+  private final EformsignTenantRegistry tenants;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final HedgingPolicy hedging;
+
+  // Token and listing caches live per company in EformsignTenant. All caches are async, which gives
+  // single-flight loading: concurrent misses for a key share one upstream call.
+  // Shared across companies so the memory bound is global.
+  // Keyed by documentId + ":" + companyId + ":" + memberId + ":" + include flags since visibility is per member
+  private final AsyncCache<String, Map<String, Object>> documentCache;
+  private final Set<String> finalStatusTypes;
+  private final int bulkConcurrency;
+  private final int exportPageSize;
+  private final int exportReadAhead;
+  private final int exportConcurrency;
 
   public EformsignService(
-      @Value("${eformsign.api.url}") String eformsignUrl,
-      @Value("${eformsign.api.key}") String apiKey,
-      @Value("${eformsign.company.id}") String companyId,
-      @Value("${eformsign.secret.key}") String secretKey) {
-    this.apiKey = apiKey;
-    this.companyId = companyId;
-    this.secretKey = secretKey;
-    this.webClient = WebClient.builder()
-        .baseUrl(eformsignUrl)
-        .build();
+      EformsignTenantRegistry tenants,
+      @Value("${eformsign.cache.document.max-bytes:67108864}") long documentCacheMaxBytes,
+      @Value("${eformsign.cache.document.final-status-types:003,042,049}") Set<String> finalStatusTypes,
+      @Value("${eformsign.cache.document.final-ttl:24h}") Duration finalDocumentTtl,
+      @Value("${eformsign.cache.document.active-ttl:30s}") Duration activeDocumentTtl,
+      @Value("${eformsign.bulk.concurrency:8}") int bulkConcurrency,
+      @Value("${eformsign.export.page-size:100}") int exportPageSize,
+      @Value("${eformsign.export.read-ahead:2}") int exportReadAhead,
+      @Value("${eformsign.export.concurrency:8}") int exportConcurrency,
+      ObjectMapper objectMapper,
+      ApplicationEventPublisher eventPublisher,
+      HedgingPolicy hedging) {
+    this.tenants = tenants;
+    this.hedging = hedging;
+    this.objectMapper = objectMapper;
+    this.eventPublisher = eventPublisher;
+    this.finalStatusTypes = Set.copyOf(finalStatusTypes);
+    this.bulkConcurrency = bulkConcurrency;
+    this.exportPageSize = exportPageSize;
+    this.exportReadAhead = exportReadAhead;
+    this.exportConcurrency = exportConcurrency;
+
+    // Bounded by approximate JSON size; Caffeine evicts with W-TinyLFU
+    this.documentCache = Caffeine.newBuilder()
+        .maximumWeight(documentCacheMaxBytes)
+        .weigher((String key, Map<String, Object> document) -> estimateBytes(document))
+        .expireAfter(new DocumentExpiry(finalStatusTypes, finalDocumentTtl, activeDocumentTtl))
+        .buildAsync();
   }
 
   public Map<String, Object> generateToken(String memberId) {
+    EformsignTenant tenant = tenants.current();
     // Return structure expected by Frontend for iframe init
     Map<String, Object> response = new HashMap<>();
 
     // Use the real access token from Eformsign API
     try {
-      Map<String, Object> tokenData = getAccessToken(memberId);
+      Map<String, Object> tokenData = await(cachedToken(tenant, memberId));
 
       // Ensure we pass the full structure the frontend expects under 'oauth_token'
       // If tokenData already contains keys like 'access_token', 'refresh_token', copy
@@ -64,8 +115,8 @@ public class EformsignService {
 
     Map<String, Object> apiKeyInfo = new HashMap<>();
     Map<String, String> company = new HashMap<>();
-    company.put("company_id", companyId);
-    company.put("user_key", apiKey);
+    company.put("company_id", tenant.getCompanyId());
+    company.put("user_key", tenant.getApiKey());
     apiKeyInfo.put("company", company);
 
     response.put("api_key", apiKeyInfo);
@@ -74,9 +125,12 @@ public class EformsignService {
   }
 
   public Map<String, Object> getTemplates(String memberId) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
+    EformsignTenant tenant = tenants.current();
+    return cached(tenant.getTemplateListCache(), memberId, id -> fetchTemplates(tenant, id));
+  }
 
-    Map<String, Object> response = webClient.get()
+  private Mono<Map<String, Object>> fetchTemplates(EformsignTenant tenant, String memberId) {
+    return accessToken(tenant, memberId).flatMap(accessToken -> tenant.getWebClient().get()
         .uri(uriBuilder -> uriBuilder
             .path("/v2.0/api/forms")
             .queryParam("member_id", memberId)
@@ -86,29 +140,79 @@ public class EformsignService {
         .header("Content-Type", "application/json")
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-        })
-        .block();
-
-    return response;
+        }));
   }
 
   public Map<String, Object> getDocuments(String memberId, String type, String documentName, String templateId,
       Integer page, Integer limit) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
-
-    String typeCode = (type != null && !type.isEmpty()) ? type : "01"; // Default to 01 (Todo)
-
+    EformsignTenant tenant = tenants.current();
     int pageNum = (page != null && page > 0) ? page : 1;
     int limitNum = (limit != null && limit > 0) ? limit : 20;
     int skip = (pageNum - 1) * limitNum;
 
+    Map<String, Object> filter = documentFilter(memberId, type, documentName, templateId);
+    return await(listDocuments(tenant, memberId, filter, skip, limitNum));
+  }
+
+  // Every matching document with its field values, in listing order, for exports. Listing pages are read
+  // ahead exportReadAhead at a time and details fetched exportConcurrency at a time, so memory stays bounded
+  // however many documents match. Details skip the document cache: a full export would only evict hot entries.
+  // A document whose details fail is emitted as {id, export_error} instead of ending the export.
+  public Flux<Map<String, Object>> streamDocuments(String memberId, String type, String documentName,
+      String templateId) {
+    return streamDocuments(memberId, type, documentName, templateId, listed -> true);
+  }
+
+  // needsDetails: decides from the listing entry whether the document's details are fetched at all
+  public Flux<Map<String, Object>> streamDocuments(String memberId, String type, String documentName,
+      String templateId, java.util.function.Predicate<Map<String, Object>> needsDetails) {
+    EformsignTenant tenant = tenants.current();
+    Map<String, Object> filter = documentFilter(memberId, type, documentName, templateId);
+    return listDocuments(tenant, memberId, filter, 0, exportPageSize)
+        .flatMapMany(first -> Flux.concat(Mono.just(first), remainingPages(tenant, memberId, filter, first)))
+        .concatMapIterable(page -> listOf(page, "documents"))
+        .filter(needsDetails)
+        .flatMapSequential(document -> {
+          String documentId = String.valueOf(document.get("id"));
+          return fetchDocument(tenant, memberId, documentId, EXPORT_PROJECTION)
+              .onErrorResume(e -> {
+                Map<String, Object> failed = new LinkedHashMap<>();
+                failed.put("id", documentId);
+                failed.put("export_error", errorMessage(e));
+                return Mono.just(failed);
+              });
+        }, exportConcurrency)
+        .contextWrite(ProfilingEvents.requestContext());
+  }
+
+  private Flux<Map<String, Object>> remainingPages(EformsignTenant tenant, String memberId, Map<String, Object> filter,
+      Map<String, Object> first) {
+    Object totalRows = first.get("total_rows");
+    if (totalRows instanceof Number) {
+      int pages = (int) ((((Number) totalRows).longValue() + exportPageSize - 1) / exportPageSize);
+      return Flux.range(1, Math.max(0, pages - 1))
+          .flatMapSequential(page -> listDocuments(tenant, memberId, filter, page * exportPageSize, exportPageSize),
+              exportReadAhead);
+    }
+    // No total: page on until a short page
+    if (listOf(first, "documents").size() < exportPageSize) {
+      return Flux.empty();
+    }
+    return Flux.range(1, Integer.MAX_VALUE)
+        .concatMap(page -> listDocuments(tenant, memberId, filter, page * exportPageSize, exportPageSize), 1)
+        .takeUntil(page -> listOf(page, "documents").size() < exportPageSize);
+  }
+
+  private Map<String, Object> documentFilter(String memberId, String type, String documentName, String templateId) {
+    String typeCode = (type != null && !type.isEmpty()) ? type : "01"; // Default to 01 (Todo)
+
     // Resolve Template ID if documentName is provided but templateId is not
     String resolvedTemplateId = templateId;
     if ((resolvedTemplateId == null || resolvedTemplateId.isEmpty())
         && (documentName != null && !documentName.isEmpty())) {
       try {
         Map<String, Object> templatesResponse = getTemplates(memberId);
-        List<Map<String, Object>> forms = (List<Map<String, Object>>) templatesResponse.get("forms");
+        List<Map<String, Object>> forms = JsonMaps.listOf(templatesResponse.get("forms"));
         if (forms != null) {
           for (Map<String, Object> form : forms) {
             if (documentName.equals(form.get("form_name"))) {
@@ -126,8 +230,6 @@ public class EformsignService {
 
     Map<String, Object> docRequest = new HashMap<>();
     docRequest.put("type", typeCode);
-    docRequest.put("limit", limitNum);
-    docRequest.put("skip", skip);
 
     // Put template_ids in BODY as a List<String> to avoid "Invalid JSON format"
     // (Schema Validation Error)
@@ -145,65 +247,163 @@ public class EformsignService {
     if (documentName != null && !documentName.isEmpty()) {
       docRequest.put("document_name", documentName);
     }
+    return docRequest;
+  }
 
-    try {
-      return webClient.method(org.springframework.http.HttpMethod.GET)
-          .uri("/v2.0/api/documents")
-          .header("Authorization", "Bearer " + accessToken)
-          .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
-          .bodyValue(docRequest)
-          .retrieve()
-          .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-          })
-          .block();
-    } catch (org.springframework.web.reactive.function.client.WebClientResponseException e) {
-      if (e.getStatusCode().value() == 403) {
-        log.warn("Access denied (403) for getDocuments with type {}", typeCode);
-        Map<String, Object> empty = new HashMap<>();
-        empty.put("documents", new ArrayList<>());
-        empty.put("total_rows", 0);
-        return empty;
-      }
-      throw e;
-    }
+  private Mono<Map<String, Object>> listDocuments(EformsignTenant tenant, String memberId, Map<String, Object> filter,
+      int skip, int limit) {
+    Map<String, Object> docRequest = new HashMap<>(filter);
+    docRequest.put("limit", limit);
+    docRequest.put("skip", skip);
+
+    return accessToken(tenant, memberId).flatMap(accessToken -> tenant.getWebClient()
+        .method(org.springframework.http.HttpMethod.GET)
+        .uri("/v2.0/api/documents")
+        .header("Authorization", "Bearer " + accessToken)
+        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+        .bodyValue(docRequest)
+        .retrieve()
+        .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
+        }))
+        .onErrorResume(org.springframework.web.reactive.function.client.WebClientResponseException.Forbidden.class,
+            e -> {
+              log.warn("Access denied (403) for getDocuments with type {}", filter.get("type"));
+              Map<String, Object> empty = new HashMap<>();
+              empty.put("documents", new ArrayList<>());
+              empty.put("total_rows", 0);
+              return Mono.just(empty);
+            });
   }
 
+  @SuppressWarnings("unchecked")
+  private static List<Map<String, Object>> listOf(Map<String, Object> response, String key) {
+    Object list = response.get(key);
+    return list instanceof List ? (List<Map<String, Object>>) list : List.of();
+  }
+
+  // Completed/cancelled documents are immutable and cached for long; in-flight ones briefly.
+  // Cached per include set (documentId first so status events can evict every variant), trimmed per call.
   public Map<String, Object> getDocument(String memberId, String documentId) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
+    return getDocument(memberId, documentId, DocumentProjection.FULL);
+  }
 
-    return webClient.get()
+  public Map<String, Object> getDocument(String memberId, String documentId, DocumentProjection projection) {
+    EformsignTenant tenant = tenants.current();
+    String key = documentId + ":" + tenant.getCompanyId() + ":" + memberId + ":" + projection.includeKey();
+    return projection.apply(cached(documentCache, key, k -> fetchDocument(tenant, memberId, documentId, projection)));
+  }
+
+  private Mono<Map<String, Object>> fetchDocument(EformsignTenant tenant, String memberId, String documentId,
+      DocumentProjection projection) {
+    return accessToken(tenant, memberId).flatMap(accessToken -> hedging.hedge("document", () -> tenant.getWebClient()
+        .get()
         .uri(uriBuilder -> uriBuilder
             .path("/v2.0/api/documents/" + documentId)
-            .queryParam("include_fields", "true")
-            .queryParam("include_histories", "true")
-            .queryParam("include_previous_status", "true")
-            .queryParam("include_next_status", "true")
+            .queryParam("include_fields", projection.includes(DocumentProjection.FIELDS))
+            .queryParam("include_histories", projection.includes(DocumentProjection.HISTORIES))
+            .queryParam("include_previous_status", projection.includes(DocumentProjection.PREVIOUS_STATUS))
+            .queryParam("include_next_status", projection.includes(DocumentProjection.NEXT_STATUS))
             .build())
         .header("Authorization", "Bearer " + accessToken)
         .header("Content-Type", "application/json")
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-        })
-        .block();
+        })));
+  }
+
+  // Completed, cancelled or deleted: the document and its files never change again
+  public boolean isFinal(Map<String, Object> document) {
+    String statusType = statusTypeOf(document);
+    return statusType != null && finalStatusTypes.contains(statusType);
+  }
+
+  public static String statusTypeOf(Map<String, Object> document) {
+    Object status = document != null ? document.get("current_status") : null;
+    Object statusType = status instanceof Map ? ((Map<?, ?>) status).get("status_type") : null;
+    return statusType != null ? statusType.toString() : null;
+  }
+
+  // Waits for the response headers only; the body streams as eformsign sends it and is never aggregated in memory
+  public ResponseEntity<Flux<DataBuffer>> downloadDocumentFile(String memberId, String documentId,
+      String fileType) {
+    EformsignTenant tenant = tenants.current();
+    return await(accessToken(tenant, memberId).flatMap(accessToken -> tenant.getWebClient().get()
+        .uri(uriBuilder -> uriBuilder
+            .path("/v2.0/api/documents/" + documentId + "/download_files")
+            .queryParam("file_type", fileType)
+            .build())
+        .header("Authorization", "Bearer " + accessToken)
+        .retrieve()
+        .toEntityFlux(DataBuffer.class)));
+  }
+
+  @EventListener
+  public void onDocumentStatusChanged(DocumentStatusChangedEvent event) {
+    evictDocument(event.getDocumentId());
+  }
+
+  public void evictDocument(String documentId) {
+    if (documentId != null) {
+      String prefix = documentId + ":";
+      documentCache.synchronous().asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
   }
 
   // --- Template Management ---
   public Map<String, Object> duplicateTemplate(String memberId, String templateId) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
-    return webClient.post()
+    EformsignTenant tenant = tenants.current();
+    Map<String, Object> result = await(accessToken(tenant, memberId)
+        .flatMap(token -> copyForm(tenant, token, templateId)));
+    tenant.getTemplateListCache().invalidateAll();
+    return result;
+  }
+
+  // eformsign has no batch copy/delete for forms: fan out under one token, bulkConcurrency at a time
+  public List<BulkItemResult> duplicateTemplates(String memberId, List<String> templateIds) {
+    EformsignTenant tenant = tenants.current();
+    List<BulkItemResult> results = fanOut(tenant, memberId, templateIds, (token, id) -> copyForm(tenant, token, id));
+    tenant.getTemplateListCache().invalidateAll();
+    return results;
+  }
+
+  public List<BulkItemResult> deleteTemplates(String memberId, List<String> templateIds) {
+    EformsignTenant tenant = tenants.current();
+    List<BulkItemResult> results = fanOut(tenant, memberId, templateIds,
+        (token, id) -> deleteForm(tenant, token, id).thenReturn(Map.<String, Object>of()));
+    tenant.getTemplateListCache().invalidateAll();
+    return results;
+  }
+
+  private Mono<Map<String, Object>> copyForm(EformsignTenant tenant, String accessToken, String templateId) {
+    return tenant.getWebClient().post()
         .uri("/v2.0/api/forms/" + templateId + "/copy")
         .header("Authorization", "Bearer " + accessToken)
         .header("Content-Type", "application/json")
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-        })
-        .block();
+        });
+  }
+
+  private Mono<Void> deleteForm(EformsignTenant tenant, String accessToken, String templateId) {
+    return tenant.getWebClient().method(org.springframework.http.HttpMethod.DELETE)
+        .uri(uriBuilder -> uriBuilder
+            .path("/v2.0/api/forms/" + templateId)
+            .build())
+        .header("Authorization", "Bearer " + accessToken)
+        .header("Content-Type", "application/json")
+        .retrieve()
+        .bodyToMono(Void.class);
   }
 
   // --- Member Management ---
   public Map<String, Object> getMembers(String memberId, Integer page, Integer limit) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
-    Map<String, Object> response = webClient.get()
+    EformsignTenant tenant = tenants.current();
+    Map<String, Object> response = cached(tenant.getMemberListCache(), memberId, id -> fetchMembers(tenant, id));
+    return paginateListResult(response, "members", page, limit);
+  }
+
+  private Mono<Map<String, Object>> fetchMembers(EformsignTenant tenant, String memberId) {
+    return accessToken(tenant, memberId).flatMap(accessToken -> tenant.getWebClient().get()
         .uri(uriBuilder -> uriBuilder
             .path("/v2.0/api/members")
             .queryParam("include_fields", "true")
@@ -212,17 +412,15 @@ public class EformsignService {
         .header("Authorization", "Bearer " + accessToken)
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-        })
-        .block();
-
-    return paginateListResult(response, "members", page, limit);
+        }));
   }
 
   public Map<String, Object> createMember(String memberId, Map<String, Object> memberData) {
     log.info("Creating member for user: {}", memberId);
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
+    EformsignTenant tenant = tenants.current();
+    String accessToken = await(accessToken(tenant, memberId));
     try {
-      return webClient.post()
+      Map<String, Object> result = await(tenant.getWebClient().post()
           .uri(uriBuilder -> uriBuilder
               .path("/v2.0/api/members")
               .queryParam("mailOption", "false")
@@ -232,8 +430,9 @@ public class EformsignService {
           .bodyValue(memberData)
           .retrieve()
           .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-          })
-          .block();
+          }));
+      tenant.getMemberListCache().invalidateAll();
+      return result;
     } catch (org.springframework.web.reactive.function.client.WebClientResponseException e) {
       log.error("Eformsign API Error (createMember): {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
       throw new RuntimeException("Eformsign API Error: " + e.getResponseBodyAsString(), e);
@@ -244,33 +443,47 @@ public class EformsignService {
   }
 
   public Map<String, Object> updateMember(String memberId, String targetMemberId, Map<String, Object> memberData) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
+    EformsignTenant tenant = tenants.current();
+    String accessToken = await(accessToken(tenant, memberId));
 
-    return webClient.patch()
+    Map<String, Object> result = await(tenant.getWebClient().patch()
         .uri("/v2.0/api/members/" + targetMemberId)
         .header("Authorization", "Bearer " + accessToken)
         .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
         .bodyValue(memberData)
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-        })
-        .block();
+        }));
+    tenant.getMemberListCache().invalidateAll();
+    return result;
   }
 
   public void deleteMember(String memberId, String targetMemberId) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
-    webClient.delete()
+    EformsignTenant tenant = tenants.current();
+    String accessToken = await(accessToken(tenant, memberId));
+    await(tenant.getWebClient().delete()
         .uri("/v2.0/api/members/" + targetMemberId)
         .header("Authorization", "Bearer " + accessToken)
         .retrieve()
-        .toBodilessEntity()
-        .block();
+        .toBodilessEntity());
+    tenant.getMemberListCache().invalidateAll();
+    tenant.getTokenCache().invalidate(targetMemberId);
+    // eformsign drops the member from every group it was in
+    tenant.getGroupIndex().removeMember(targetMemberId);
+    tenant.getGroupListCache().invalidateAll();
   }
 
   // --- Group Management ---
   public Map<String, Object> getGroups(String memberId, Integer page, Integer limit) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
-    Map<String, Object> response = webClient.get()
+    EformsignTenant tenant = tenants.current();
+    Map<String, Object> response = cached(tenant.getGroupListCache(), memberId, id -> fetchGroups(tenant, id));
+    return paginateListResult(response, "groups", page, limit);
+  }
+
+  // Every listing the groups cache loads is merged into the membership index (see EformsignTenant), so
+  // membership changes made outside this server show up within one listing TTL
+  private Mono<Map<String, Object>> fetchGroups(EformsignTenant tenant, String memberId) {
+    return accessToken(tenant, memberId).flatMap(accessToken -> tenant.getWebClient().get()
         .uri(uriBuilder -> uriBuilder
             .path("/v2.0/api/groups")
             .queryParam("include_member", "true")
@@ -280,55 +493,210 @@ public class EformsignService {
         .header("Authorization", "Bearer " + accessToken)
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-        })
-        .block();
+        }));
+  }
 
-    return paginateListResult(response, "groups", page, limit);
+  public List<Map<String, Object>> getMemberGroups(String memberId, String targetMemberId) {
+    EformsignTenant tenant = tenants.current();
+    ensureGroupIndex(tenant, memberId);
+    return tenant.getGroupIndex().groupsOf(targetMemberId);
+  }
+
+  public List<Map<String, Object>> getGroupMembers(String memberId, String groupId) {
+    EformsignTenant tenant = tenants.current();
+    ensureGroupIndex(tenant, memberId);
+    return tenant.getGroupIndex().membersOf(groupId);
+  }
+
+  // The caller's own listing, so its groups are in the index however restricted other callers were;
+  // a cache hit costs nothing and a load merges it in
+  private void ensureGroupIndex(EformsignTenant tenant, String memberId) {
+    cached(tenant.getGroupListCache(), memberId, id -> fetchGroups(tenant, id));
   }
 
   public Map<String, Object> createGroup(String memberId, Map<String, Object> groupData) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
-    return webClient.post()
+    EformsignTenant tenant = tenants.current();
+    String accessToken = await(accessToken(tenant, memberId));
+    Map<String, Object> result = await(tenant.getWebClient().post()
         .uri("/v2.0/api/groups")
         .header("Authorization", "Bearer " + accessToken)
         .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
         .bodyValue(groupData)
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-        })
-        .block();
+        }));
+    String groupId = groupIdOf(result);
+    if (groupId != null) {
+      indexGroupWrite(tenant, groupId, groupData);
+    }
+    tenant.getGroupListCache().invalidateAll();
+    return result;
   }
 
   public Map<String, Object> updateGroup(String memberId, String groupId, Map<String, Object> groupData) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
-    return webClient.patch()
+    EformsignTenant tenant = tenants.current();
+    Map<String, Object> result = await(accessToken(tenant, memberId)
+        .flatMap(token -> patchGroup(tenant, token, groupId, groupData)));
+    indexGroupWrite(tenant, groupId, groupData);
+    tenant.getGroupListCache().invalidateAll();
+    return result;
+  }
+
+  // No batch update upstream: one PATCH per group, fanned out under a shared token
+  public List<BulkItemResult> updateGroups(String memberId, Map<String, Map<String, Object>> groupDataById) {
+    EformsignTenant tenant = tenants.current();
+    List<BulkItemResult> results = fanOut(tenant, memberId, new ArrayList<>(groupDataById.keySet()),
+        (token, id) -> patchGroup(tenant, token, id, groupDataById.get(id)));
+    for (BulkItemResult result : results) {
+      if (result.isSuccess()) {
+        indexGroupWrite(tenant, result.getId(), groupDataById.get(result.getId()));
+      }
+    }
+    tenant.getGroupListCache().invalidateAll();
+    return results;
+  }
+
+  // Write payloads are {group: {name, members: [memberId]}}; a payload without members leaves them as they were
+  private void indexGroupWrite(EformsignTenant tenant, String groupId, Map<String, Object> groupData) {
+    Object group = groupData != null ? groupData.get("group") : null;
+    if (!(group instanceof Map)) {
+      return;
+    }
+    Map<?, ?> fields = (Map<?, ?>) group;
+    Object name = fields.get("name");
+    tenant.getGroupIndex().putGroup(groupId, name != null ? name.toString() : null,
+        fields.containsKey("members") ? GroupMembershipIndex.memberIdsOf(fields.get("members"), null) : null);
+  }
+
+  private Mono<Map<String, Object>> patchGroup(EformsignTenant tenant, String accessToken, String groupId,
+      Map<String, Object> groupData) {
+    return tenant.getWebClient().patch()
         .uri("/v2.0/api/groups/" + groupId)
         .header("Authorization", "Bearer " + accessToken)
         .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
         .bodyValue(groupData)
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-        })
-        .block();
+        });
   }
 
   public void deleteGroup(String memberId, String groupId) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
+    EformsignTenant tenant = tenants.current();
+    await(accessToken(tenant, memberId).flatMap(token -> deleteGroupBatch(tenant, token, List.of(groupId))));
+    tenant.getGroupIndex().removeGroups(List.of(groupId));
+    tenant.getGroupListCache().invalidateAll();
+  }
 
+  // Native batch: eformsign deletes every id in group_ids in one call, so items succeed or fail together
+  public List<BulkItemResult> deleteGroups(String memberId, List<String> groupIds) {
+    if (groupIds.isEmpty()) {
+      return List.of();
+    }
+    EformsignTenant tenant = tenants.current();
+    String error = await(accessToken(tenant, memberId).flatMap(token -> deleteGroupBatch(tenant, token, groupIds))
+        .then(Mono.<String>empty())
+        .onErrorResume(e -> Mono.just(errorMessage(e))));
+
+    List<BulkItemResult> results = new ArrayList<>(groupIds.size());
+    for (String id : groupIds) {
+      results.add(error == null ? BulkItemResult.ok(id, Map.of()) : BulkItemResult.failed(id, error));
+    }
+    if (error == null) {
+      tenant.getGroupIndex().removeGroups(groupIds);
+      tenant.getGroupListCache().invalidateAll();
+    }
+    return results;
+  }
+
+  private Mono<Void> deleteGroupBatch(EformsignTenant tenant, String accessToken, List<String> groupIds) {
     Map<String, Object> body = new HashMap<>();
-    body.put("group_ids", java.util.Collections.singletonList(groupId));
+    body.put("group_ids", groupIds);
 
-    webClient.method(org.springframework.http.HttpMethod.DELETE)
+    return tenant.getWebClient().method(org.springframework.http.HttpMethod.DELETE)
         .uri("/v2.0/api/groups")
         .header("Authorization", "Bearer " + accessToken)
         .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
         .bodyValue(body)
         .retrieve()
         .toBodilessEntity()
-        .block();
+        .then();
+  }
+
+  // Per-id results in input order; one id failing never cancels the others
+  private List<BulkItemResult> fanOut(EformsignTenant tenant, String memberId, List<String> ids,
+      java.util.function.BiFunction<String, String, Mono<Map<String, Object>>> call) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return await(accessToken(tenant, memberId).flatMap(token -> Flux.fromIterable(ids)
+        .flatMapSequential(id -> call.apply(token, id)
+            .defaultIfEmpty(Map.of())
+            .map(data -> BulkItemResult.ok(id, data))
+            .onErrorResume(e -> Mono.just(BulkItemResult.failed(id, errorMessage(e)))), bulkConcurrency)
+        .collectList()));
+  }
+
+  private static String errorMessage(Throwable e) {
+    if (e instanceof org.springframework.web.reactive.function.client.WebClientResponseException) {
+      org.springframework.web.reactive.function.client.WebClientResponseException response =
+          (org.springframework.web.reactive.function.client.WebClientResponseException) e;
+      return response.getStatusCode().value() + ": " + response.getResponseBodyAsString();
+    }
+    return e.getMessage();
   }
 
   // --- Helper Methods ---
+  // Create responses carry the id either at the top level or under "document"
+  public static String documentIdOf(Map<String, Object> response) {
+    if (response == null) {
+      return null;
+    }
+    Object document = response.get("document");
+    if (document instanceof Map && ((Map<?, ?>) document).get("id") instanceof String) {
+      return (String) ((Map<?, ?>) document).get("id");
+    }
+    Object id = response.containsKey("document_id") ? response.get("document_id") : response.get("id");
+    return id instanceof String ? (String) id : null;
+  }
+
+  private static String groupIdOf(Map<String, Object> response) {
+    if (response == null) {
+      return null;
+    }
+    Object group = response.get("group");
+    Object id = group instanceof Map ? ((Map<?, ?>) group).get("id") : response.get("id");
+    return id != null ? id.toString() : null;
+  }
+
+  private int estimateBytes(Map<String, Object> value) {
+    try {
+      return objectMapper.writeValueAsBytes(value).length;
+    } catch (JsonProcessingException e) {
+      return 4096;
+    }
+  }
+
+  private Map<String, Object> cached(AsyncCache<String, Map<String, Object>> cache, String key,
+      Function<String, Mono<Map<String, Object>>> loader) {
+    // The loader runs on this thread but its Mono may be subscribed elsewhere (hedges, retries)
+    ContextView context = ProfilingEvents.requestContext();
+    return await(Mono.fromFuture(cache.get(key, (k, executor) -> loader.apply(k).contextWrite(context).toFuture()),
+        true));
+  }
+
+  private Map<String, Object> cached(TwoLevelCache cache, String key, Function<String, Mono<Map<String, Object>>> loader) {
+    return await(cache.get(key, loader));
+  }
+
+  // Every upstream wait goes through here. Callers must not hold a JPA transaction
+  // (and therefore a pooled connection) while eformsign is being waited on.
+  private <T> T await(Mono<T> call) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      log.warn("Blocking on eformsign inside an active transaction; a DB connection is held for the upstream wait");
+    }
+    return call.contextWrite(ProfilingEvents.requestContext()).block();
+  }
+
   private Map<String, Object> paginateListResult(Map<String, Object> response, String listKey, Integer page,
       Integer limit) {
     Map<String, Object> result = new HashMap<>();
@@ -374,53 +742,92 @@ public class EformsignService {
     return result;
   }
 
+  // Cached until shortly before eformsign's expires_in, so most calls skip the token round trip
   public Map<String, Object> getAccessToken(String memberId) {
+    return await(cachedToken(tenants.current(), memberId));
+  }
+
+  private Mono<String> accessToken(EformsignTenant tenant, String memberId) {
+    return cachedToken(tenant, memberId).map(token -> (String) token.get("access_token"));
+  }
+
+  private Mono<Map<String, Object>> cachedToken(EformsignTenant tenant, String memberId) {
+    return tenant.getTokenCache().get(memberId, key -> requestAccessToken(tenant, key));
+  }
+
+  private Mono<Map<String, Object>> requestAccessToken(EformsignTenant tenant, String memberId) {
     long executionTime = System.currentTimeMillis();
 
     // Match Python script: Base64 encode the API Key
-    String base64ApiKey = Base64.getEncoder().encodeToString(apiKey.getBytes(StandardCharsets.UTF_8));
+    String base64ApiKey = Base64.getEncoder().encodeToString(tenant.getApiKey().getBytes(StandardCharsets.UTF_8));
 
     Map<String, Object> requestBody = new HashMap<>();
     requestBody.put("execution_time", executionTime);
     requestBody.put("member_id", memberId);
 
-    try {
-      // Match Python script headers
-      Map<String, Object> response = webClient.post()
-          .uri("/v2.0/api_auth/access_token")
-          .header("eformsign_signature", "Bearer " + secretKey) // Secret key directly
-          .header("Authorization", "Bearer " + base64ApiKey) // Base64 encoded API Key
-          .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
-          .bodyValue(requestBody)
-          .retrieve()
-          .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-          })
-          .block();
-
-      if (response == null || !response.containsKey("oauth_token")) {
-        throw new RuntimeException("Failed to retrieve access token");
-      }
-
-      Map<String, Object> oauthToken = (Map<String, Object>) response.get("oauth_token");
-      // Return the full map, not just the string
-      return oauthToken;
-    } catch (org.springframework.web.reactive.function.client.WebClientResponseException e) {
-      log.error("API Error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-      throw new RuntimeException("API Call Failed: " + e.getResponseBodyAsString(), e);
-    }
+    // Match Python script headers
+    // Not hedged: it is a POST, and each call mints a token upstream
+    return tenant.getWebClient().post()
+        .uri("/v2.0/api_auth/access_token")
+        .header("eformsign_signature", "Bearer " + tenant.getSecretKey()) // Secret key directly
+        .header("Authorization", "Bearer " + base64ApiKey) // Base64 encoded API Key
+        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+        .bodyValue(requestBody)
+        .retrieve()
+        .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
+        })
+        .onErrorMap(org.springframework.web.reactive.function.client.WebClientResponseException.class, e -> {
+          log.error("API Error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+          return new RuntimeException("API Call Failed: " + e.getResponseBodyAsString(), e);
+        })
+        .map(response -> {
+          // Return the full map, not just the string
+          Map<String, Object> oauthToken = JsonMaps.mapOf(response.get("oauth_token"));
+          if (oauthToken == null) {
+            throw new RuntimeException("Failed to retrieve access token");
+          }
+          return oauthToken;
+        })
+        .switchIfEmpty(Mono.error(() -> new RuntimeException("Failed to retrieve access token")));
   }
 
   public Map<String, Object> createDocumentFromTemplate(String memberId, String templateId) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
+    return createDocument(memberId, templateId, "Test Document Created by API", List.of(), Map.of());
+  }
+
+  // recipients: [{"id": eformsign member id or email, "name": ...}] filled into the template's participant step.
+  public Map<String, Object> createDocument(String memberId, String templateId, String documentName,
+      List<Map<String, String>> recipients, Map<String, String> fields) {
+    EformsignTenant tenant = tenants.current();
+    String accessToken = await(accessToken(tenant, memberId));
 
     Map<String, Object> documentData = new HashMap<>();
-    documentData.put("document_name", "Test Document Created by API");
-    // Add other fields if necessary, e.g. recipients
+    documentData.put("document_name", documentName);
+    if (!recipients.isEmpty()) {
+      List<Map<String, Object>> recipientList = new ArrayList<>();
+      for (Map<String, String> recipient : recipients) {
+        Map<String, Object> member = new HashMap<>();
+        member.put("id", recipient.get("id"));
+        member.put("name", recipient.get("name"));
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("step_type", "05"); // Participant
+        entry.put("use_mail", true);
+        entry.put("use_sms", false);
+        entry.put("member", member);
+        recipientList.add(entry);
+      }
+      documentData.put("recipients", recipientList);
+    }
+    if (!fields.isEmpty()) {
+      List<Map<String, Object>> fieldList = new ArrayList<>();
+      fields.forEach((id, value) -> fieldList.add(Map.of("id", id, "value", value)));
+      documentData.put("fields", fieldList);
+    }
 
     Map<String, Object> body = new HashMap<>();
     body.put("document", documentData);
 
-    return webClient.post()
+    Map<String, Object> result = await(tenant.getWebClient().post()
         .uri(uriBuilder -> uriBuilder
             .path("/v2.0/api/documents")
             .queryParam("template_id", templateId)
@@ -430,21 +837,47 @@ public class EformsignService {
         .bodyValue(body)
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-        })
-        .block();
+        }));
+
+    String documentId = documentIdOf(result);
+    if (documentId != null) {
+      eventPublisher.publishEvent(new DocumentStatusChangedEvent(tenant.getCompanyId(), documentId, null, result));
+    }
+    return result;
   }
 
   public void deleteTemplate(String memberId, String templateId) {
-    String accessToken = (String) getAccessToken(memberId).get("access_token");
+    EformsignTenant tenant = tenants.current();
+    await(accessToken(tenant, memberId).flatMap(token -> deleteForm(tenant, token, templateId)));
+    tenant.getTemplateListCache().invalidateAll();
+  }
 
-    webClient.method(org.springframework.http.HttpMethod.DELETE)
-        .uri(uriBuilder -> uriBuilder
-            .path("/v2.0/api/forms/" + templateId)
-            .build())
-        .header("Authorization", "Bearer " + accessToken)
-        .header("Content-Type", "application/json")
-        .retrieve()
-        .bodyToMono(Void.class)
-        .block();
+  // TTL by current_status.status_type: final states never change, in-flight ones change on workflow actions
+  private static final class DocumentExpiry implements Expiry<String, Map<String, Object>> {
+    private final Set<String> finalStatusTypes;
+    private final long finalTtlNanos;
+    private final long activeTtlNanos;
+
+    private DocumentExpiry(Set<String> finalStatusTypes, Duration finalTtl, Duration activeTtl) {
+      this.finalStatusTypes = Set.copyOf(finalStatusTypes);
+      this.finalTtlNanos = finalTtl.toNanos();
+      this.activeTtlNanos = activeTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(String key, Map<String, Object> document, long currentTime) {
+      String statusType = statusTypeOf(document);
+      return statusType != null && finalStatusTypes.contains(statusType) ? finalTtlNanos : activeTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Map<String, Object> document, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, document, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Map<String, Object> document, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
 }
@@ -0,0 +1,91 @@
+package com.eformsign.api.service;
+
+import com.eformsign.storage.SharedCacheStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Everything EformsignService keeps per eformsign company: credentials, a connection pool of its own
+// and the token/listing caches. Created and evicted by EformsignTenantRegistry.
+// The listing caches are two-level (TwoLevelCache), so replicas share loaded listings. Access tokens
+// are credentials and stay in this replica's memory: each replica fetches its own.
+@Getter
+public class EformsignTenant {
+
+  private static final long DEFAULT_TOKEN_TTL_SECONDS = 3600;
+
+  private final String companyId;
+  private final String apiKey;
+  private final String secretKey;
+  private final WebClient webClient;
+  private final TwoLevelCache tokenCache;
+  private final TwoLevelCache templateListCache;
+  private final TwoLevelCache memberListCache;
+  private final TwoLevelCache groupListCache;
+  private final GroupMembershipIndex groupIndex = new GroupMembershipIndex();
+  private final ConnectionProvider connectionProvider;
+
+  @SuppressWarnings("unchecked")
+  EformsignTenant(String companyId, String apiKey, String secretKey, WebClient webClient,
+      ConnectionProvider connectionProvider, Duration tokenExpirySkew, Duration listingTtl,
+      SharedCacheStore sharedStore, ObjectMapper objectMapper, Duration loadLease) {
+    this.companyId = companyId;
+    this.apiKey = apiKey;
+    this.secretKey = secretKey;
+    this.webClient = webClient;
+    this.connectionProvider = connectionProvider;
+
+    this.tokenCache = new TwoLevelCache(companyId, "token", 10_000, token -> tokenTtl(token, tokenExpirySkew),
+        sharedStore, objectMapper, loadLease, false, token -> {
+        }, () -> {
+        });
+    Function<Map<String, Object>, Duration> listingTtlOf = listing -> listingTtl;
+    this.templateListCache = new TwoLevelCache(companyId, "templates", 1_000, listingTtlOf,
+        sharedStore, objectMapper, loadLease, true, listing -> {
+        }, () -> {
+        });
+    this.memberListCache = new TwoLevelCache(companyId, "members", 1_000, listingTtlOf,
+        sharedStore, objectMapper, loadLease, true, listing -> {
+        }, () -> {
+        });
+    // Every listing this replica loads (from upstream or another replica) is merged into the membership index:
+    // listings are per caller, and a restricted member's must not drop the groups it cannot see.
+    // A group write on another replica clears the index; lookups then merge their callers' listings again
+    this.groupListCache = new TwoLevelCache(companyId, "groups", 1_000, listingTtlOf,
+        sharedStore, objectMapper, loadLease, true, listing -> {
+          Object groups = listing.get("groups");
+          if (groups instanceof List) {
+            groupIndex.merge((List<Map<String, Object>>) groups);
+          }
+        }, groupIndex::clear);
+  }
+
+  public TwoLevelCache cache(String name) {
+    switch (name) {
+      case "token":
+        return tokenCache;
+      case "templates":
+        return templateListCache;
+      case "members":
+        return memberListCache;
+      case "groups":
+        return groupListCache;
+      default:
+        return null;
+    }
+  }
+
+  // Expire tokens a little before eformsign does so a cached token is never handed out stale
+  private static Duration tokenTtl(Map<String, Object> token, Duration skew) {
+    Object expiresIn = token.get("expires_in");
+    long ttlSeconds = expiresIn instanceof Number ? ((Number) expiresIn).longValue() : DEFAULT_TOKEN_TTL_SECONDS;
+    Duration ttl = Duration.ofSeconds(ttlSeconds).minus(skew);
+    return ttl.isNegative() ? Duration.ZERO : ttl;
+  }
+}
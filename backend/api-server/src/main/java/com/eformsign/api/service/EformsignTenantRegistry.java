@@ -0,0 +1,192 @@
+package com.eformsign.api.service;
+
+import com.eformsign.api.profiling.ProfilingEvents;
+import com.eformsign.api.repository.EformsignCompanyRepository;
+import com.eformsign.common.entity.EformsignCompany;
+import com.eformsign.storage.SharedCacheStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// One EformsignTenant per eformsign company, so a single deployment serves many companies.
+// The company comes from the caller's access token (AuthInterceptor puts it on the request); work
+// outside a request (warm-ups, pollers) runs as the default company unless wrapped in callAs.
+//
+// Each company gets its own bounded connection pool on the shared Netty event loop: a busy company
+// queues on its own pool and can't take connections from the others. Companies idle for
+// idle-timeout, or least recently used beyond max-active, are dropped with their caches.
+@Slf4j
+@Component
+public class EformsignTenantRegistry {
+
+  public static final String COMPANY_ATTRIBUTE = "COMPANY_ID";
+
+  private static final ThreadLocal<String> OVERRIDE = new ThreadLocal<>();
+
+  private final EformsignCompanyRepository companyRepository;
+  private final SharedCacheStore sharedStore;
+  private final ObjectMapper objectMapper;
+  private final String defaultApiUrl;
+  private final Duration tokenExpirySkew;
+  private final Duration listingTtl;
+  private final Duration loadLease;
+  private final int maxConnections;
+  private final int pendingAcquireMax;
+  private final Duration pendingAcquireTimeout;
+  private final Duration maxIdleTime;
+  private final Duration disposeGrace;
+  private final EformsignTenant defaultTenant;
+  private final LoadingCache<String, EformsignTenant> tenants;
+
+  public EformsignTenantRegistry(EformsignCompanyRepository companyRepository, MeterRegistry meterRegistry,
+      SharedCacheStore sharedStore, ObjectMapper objectMapper,
+      @Value("${eformsign.api.url}") String apiUrl,
+      @Value("${eformsign.api.key}") String apiKey,
+      @Value("${eformsign.company.id}") String companyId,
+      @Value("${eformsign.secret.key}") String secretKey,
+      @Value("${eformsign.cache.token-expiry-skew:5m}") Duration tokenExpirySkew,
+      @Value("${eformsign.cache.listing-ttl:30s}") Duration listingTtl,
+      @Value("${eformsign.cache.load-lease:5s}") Duration loadLease,
+      @Value("${eformsign.tenants.max-active:500}") int maxActive,
+      @Value("${eformsign.tenants.idle-timeout:30m}") Duration idleTimeout,
+      @Value("${eformsign.tenants.max-connections:20}") int maxConnections,
+      @Value("${eformsign.tenants.pending-acquire-max:200}") int pendingAcquireMax,
+      @Value("${eformsign.tenants.pending-acquire-timeout:10s}") Duration pendingAcquireTimeout,
+      @Value("${eformsign.tenants.max-idle-time:60s}") Duration maxIdleTime,
+      @Value("${eformsign.tenants.dispose-grace:60s}") Duration disposeGrace) {
+    this.companyRepository = companyRepository;
+    this.sharedStore = sharedStore;
+    this.objectMapper = objectMapper;
+    this.defaultApiUrl = apiUrl;
+    this.tokenExpirySkew = tokenExpirySkew;
+    this.listingTtl = listingTtl;
+    this.loadLease = loadLease;
+    this.maxConnections = maxConnections;
+    this.pendingAcquireMax = pendingAcquireMax;
+    this.pendingAcquireTimeout = pendingAcquireTimeout;
+    this.maxIdleTime = maxIdleTime;
+    this.disposeGrace = disposeGrace;
+
+    // The configured company is never evicted
+    this.defaultTenant = create(companyId, apiKey, secretKey, apiUrl);
+    this.tenants = Caffeine.newBuilder()
+        .maximumSize(maxActive)
+        .expireAfterAccess(idleTimeout)
+        .removalListener((String id, EformsignTenant tenant, RemovalCause cause) -> {
+          if (tenant != null) {
+            log.info("Dropping eformsign company {} ({})", id, cause);
+            dispose(tenant);
+          }
+        })
+        .build(this::load);
+    Gauge.builder("eformsign.tenants.active", tenants, cache -> cache.estimatedSize() + 1).register(meterRegistry);
+
+    // Invalidations from other replicas; companies not active here have nothing to drop
+    sharedStore.subscribe(message -> TwoLevelCache.onMessage(message, (id, name) -> {
+      EformsignTenant tenant = id.equals(defaultTenant.getCompanyId()) ? defaultTenant : tenants.getIfPresent(id);
+      return tenant != null ? tenant.cache(name) : null;
+    }));
+  }
+
+  public EformsignTenant current() {
+    return get(currentCompanyId());
+  }
+
+  // null is the default company
+  public String currentCompanyId() {
+    String override = OVERRIDE.get();
+    if (override != null) {
+      return override;
+    }
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    return request != null
+        ? (String) request.getAttribute(COMPANY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+        : null;
+  }
+
+  // One name per company for comparisons: null for the default company, however the caller named it
+  public String canonicalCompanyId(String companyId) {
+    return companyId == null || companyId.equals(defaultTenant.getCompanyId()) ? null : companyId;
+  }
+
+  public EformsignTenant get(String companyId) {
+    if (companyId == null || companyId.equals(defaultTenant.getCompanyId())) {
+      return defaultTenant;
+    }
+    return tenants.get(companyId);
+  }
+
+  // Runs background work (e.g. a queued bulk send) as the company that requested it
+  public <T> T callAs(String companyId, Supplier<T> call) {
+    String previous = OVERRIDE.get();
+    OVERRIDE.set(companyId != null ? companyId : defaultTenant.getCompanyId());
+    try {
+      return call.get();
+    } finally {
+      if (previous != null) {
+        OVERRIDE.set(previous);
+      } else {
+        OVERRIDE.remove();
+      }
+    }
+  }
+
+  // Credentials changed: the next call rebuilds the company with fresh caches
+  public void invalidate(String companyId) {
+    tenants.invalidate(companyId);
+  }
+
+  private EformsignTenant load(String companyId) {
+    EformsignCompany company = companyRepository.findById(companyId)
+        .orElseThrow(() -> new IllegalStateException("No eformsign credentials for company " + companyId));
+    log.info("Activating eformsign company {} ({})", companyId, company.getName());
+    return create(companyId, company.getApiKey(), company.getSecretKey(),
+        company.getApiUrl() != null ? company.getApiUrl() : defaultApiUrl);
+  }
+
+  private EformsignTenant create(String companyId, String apiKey, String secretKey, String apiUrl) {
+    ConnectionProvider provider = ConnectionProvider.builder("eformsign-" + companyId)
+        .maxConnections(maxConnections)
+        .pendingAcquireMaxCount(pendingAcquireMax) // Beyond this a company's calls fail fast instead of queueing
+        .pendingAcquireTimeout(pendingAcquireTimeout)
+        .maxIdleTime(maxIdleTime)
+        .build();
+    WebClient webClient = WebClient.builder()
+        .baseUrl(apiUrl)
+        .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+        .filter(ProfilingEvents.upstreamCalls(companyId))
+        .build();
+    return new EformsignTenant(companyId, apiKey, secretKey, webClient, provider, tokenExpirySkew, listingTtl,
+        sharedStore, objectMapper, loadLease);
+  }
+
+  // Calls that picked the tenant up just before eviction may still be running on its pool
+  private void dispose(EformsignTenant tenant) {
+    Mono.delay(disposeGrace)
+        .then(tenant.getConnectionProvider().disposeLater())
+        .subscribe(null, e -> log.warn("Failed to close pool of eformsign company {}", tenant.getCompanyId(), e));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    tenants.asMap().values().forEach(tenant -> tenant.getConnectionProvider().dispose());
+    defaultTenant.getConnectionProvider().dispose();
+  }
+}
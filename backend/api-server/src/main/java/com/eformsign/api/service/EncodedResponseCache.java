@@ -0,0 +1,150 @@
+package com.eformsign.api.service;
+
+import com.eformsign.api.profiling.ProfilingEvents;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Final JSON bytes of the listing endpoints (plus a gzipped copy once a client asks for gzip), so a hit is
+// a byte copy to the socket with no Jackson work. Each entry is tagged with the version of the listing
+// cache entry it was built from (TwoLevelCache.version, per key): a reload or invalidation of that entry,
+// including writes through EformsignService on this or another replica, makes it a miss, while other
+// members' loads leave it alone. Bounded by total bytes.
+@Component
+public class EncodedResponseCache {
+
+  private final EformsignTenantRegistry tenants;
+  private final ObjectMapper objectMapper;
+  private final boolean enabled;
+  private final int gzipMinBytes;
+  private final Cache<String, Encoded> entries;
+  private final Counter hits;
+  private final Counter misses;
+
+  public EncodedResponseCache(EformsignTenantRegistry tenants, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+      @Value("${eformsign.cache.encoded.enabled:true}") boolean enabled,
+      @Value("${eformsign.cache.encoded.max-bytes:33554432}") long maxBytes,
+      @Value("${eformsign.cache.encoded.gzip-min-bytes:1024}") int gzipMinBytes,
+      @Value("${eformsign.cache.listing-ttl:30s}") Duration listingTtl) {
+    this.tenants = tenants;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.gzipMinBytes = gzipMinBytes;
+    // Versions move only when something loads, so entries also expire with the listings they came from
+    this.entries = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((String key, Encoded encoded) -> encoded.weight())
+        .expireAfterWrite(listingTtl)
+        .build();
+    this.hits = meterRegistry.counter("eformsign.encoded-responses", "result", "hit");
+    this.misses = meterRegistry.counter("eformsign.encoded-responses", "result", "miss");
+  }
+
+  // listing: the EformsignTenant cache the body is built from; key: the entry of that cache it reads;
+  // variant: what else shapes the body from that entry (page and limit), null when nothing does
+  public void write(HttpServletRequest request, HttpServletResponse response, String listing, String key,
+      String variant, Supplier<Object> body) throws IOException {
+    boolean gzip = acceptsGzip(request);
+    if (!enabled) {
+      send(response, withGzip(encode(body.get(), -1), gzip), gzip);
+      return;
+    }
+
+    EformsignTenant tenant = tenants.current();
+    TwoLevelCache cache = tenant.cache(listing);
+    String cacheKey = tenant.getCompanyId() + ":" + listing + ":" + key + (variant != null ? ":" + variant : "");
+    Encoded encoded = entries.getIfPresent(cacheKey);
+    long version = cache.version(key);
+    if (encoded != null && version != -1 && encoded.version == version) {
+      hits.increment();
+      Encoded compressed = withGzip(encoded, gzip);
+      if (compressed != encoded) {
+        entries.put(cacheKey, compressed);
+        encoded = compressed;
+      }
+    } else {
+      misses.increment();
+      Object value = body.get();
+      // Tagged after loading: the body just loaded the entry, so this is the version it was built from
+      // (a miss before loading has no version yet). Only an entry gone again in between is left uncached.
+      encoded = withGzip(encode(value, cache.version(key)), gzip);
+      if (encoded.version != -1) {
+        entries.put(cacheKey, encoded);
+      }
+    }
+    send(response, encoded, gzip);
+  }
+
+  private Encoded encode(Object body, long version) throws IOException {
+    ProfilingEvents.SerializationEvent event = ProfilingEvents.startSerialization();
+    byte[] json = objectMapper.writeValueAsBytes(body);
+    ProfilingEvents.endSerialization(event, body != null ? body.getClass().getSimpleName() : "null", json.length);
+    return new Encoded(json, null, version);
+  }
+
+  // Compressed on the first request that accepts gzip, then kept with the entry
+  private Encoded withGzip(Encoded encoded, boolean gzip) {
+    if (!gzip || encoded.gzip != null || encoded.json.length < gzipMinBytes) {
+      return encoded;
+    }
+    return new Encoded(encoded.json, gzip(encoded.json), encoded.version);
+  }
+
+  private static void send(HttpServletResponse response, Encoded encoded, boolean gzip) throws IOException {
+    byte[] bytes = gzip && encoded.gzip != null ? encoded.gzip : encoded.json;
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (bytes == encoded.gzip) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    response.setContentLength(bytes.length);
+    response.getOutputStream().write(bytes);
+  }
+
+  private static boolean acceptsGzip(HttpServletRequest request) {
+    String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    return accept != null && accept.contains("gzip");
+  }
+
+  private static byte[] gzip(byte[] json) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+    try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+      zip.write(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  private static final class Encoded {
+    private final byte[] json;
+    private final byte[] gzip; // null until a client asks, or when too small to be worth compressing
+    private final long version;
+
+    private Encoded(byte[] json, byte[] gzip, long version) {
+      this.json = json;
+      this.gzip = gzip;
+      this.version = version;
+    }
+
+    private int weight() {
+      return json.length + (gzip != null ? gzip.length : 0) + 64;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.eformsign.api.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Member <-> group lookups without scanning every group's member array. One per company (EformsignTenant).
+// Merged from every groups listing fetched, whoever's it is, and patched in place by our own group/member writes.
+// Values are immutable sets swapped per key, so reads never lock; writes are serialized.
+public class GroupMembershipIndex {
+
+  private final Map<String, Set<String>> groupsByMember = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> membersByGroup = new ConcurrentHashMap<>();
+  private final Map<String, String> groupNames = new ConcurrentHashMap<>();
+  private final Map<String, String> memberNames = new ConcurrentHashMap<>();
+
+  // groups: eformsign listing entries ({id, name, members: [{id, name}] or [id]}). Listed groups take the
+  // listing's name and members; unlisted ones are kept, since a listing only holds the groups its caller can
+  // see. Groups deleted outside this server therefore stay until a write through it removes them.
+  public synchronized void merge(List<Map<String, Object>> groups) {
+    Map<String, String> people = new HashMap<>();
+    for (Map<String, Object> group : groups) {
+      String groupId = stringOf(group.get("id"));
+      if (groupId != null) {
+        putGroup(groupId, stringOf(group.get("name")), memberIdsOf(group.get("members"), people));
+      }
+    }
+    memberNames.putAll(people);
+  }
+
+  // memberIds == null keeps the current membership (e.g. a rename)
+  public synchronized void putGroup(String groupId, String name, Collection<String> memberIds) {
+    if (name != null) {
+      groupNames.put(groupId, name);
+    } else {
+      groupNames.putIfAbsent(groupId, groupId);
+    }
+    if (memberIds == null) {
+      return;
+    }
+    Set<String> previous = membersByGroup.getOrDefault(groupId, Set.of());
+    Set<String> current = Set.copyOf(memberIds);
+    membersByGroup.put(groupId, current);
+    for (String removed : previous) {
+      if (!current.contains(removed)) {
+        unlink(removed, groupId);
+      }
+    }
+    for (String added : current) {
+      if (!previous.contains(added)) {
+        link(added, groupId);
+      }
+    }
+  }
+
+  public synchronized void removeGroups(Collection<String> groupIds) {
+    for (String groupId : groupIds) {
+      Set<String> members = membersByGroup.remove(groupId);
+      groupNames.remove(groupId);
+      if (members != null) {
+        members.forEach(memberId -> unlink(memberId, groupId));
+      }
+    }
+  }
+
+  public synchronized void removeMember(String memberId) {
+    Set<String> groups = groupsByMember.remove(memberId);
+    memberNames.remove(memberId);
+    if (groups != null) {
+      for (String groupId : groups) {
+        membersByGroup.computeIfPresent(groupId, (k, members) -> without(members, memberId));
+      }
+    }
+  }
+
+  public void putMemberNames(Map<String, String> namesById) {
+    memberNames.putAll(namesById);
+  }
+
+  // Another replica changed groups and every listing was dropped with it; each caller's next lookup loads
+  // and merges its listing again
+  public synchronized void clear() {
+    groupsByMember.clear();
+    membersByGroup.clear();
+    groupNames.clear();
+    memberNames.clear();
+  }
+
+  public List<Map<String, Object>> groupsOf(String memberId) {
+    return summaries(groupsByMember.getOrDefault(memberId, Set.of()), groupNames);
+  }
+
+  public List<Map<String, Object>> membersOf(String groupId) {
+    return summaries(membersByGroup.getOrDefault(groupId, Set.of()), memberNames);
+  }
+
+  private void link(String memberId, String groupId) {
+    groupsByMember.compute(memberId, (k, groups) -> {
+      Set<String> next = groups != null ? new HashSet<>(groups) : new HashSet<>();
+      next.add(groupId);
+      return Set.copyOf(next);
+    });
+  }
+
+  private void unlink(String memberId, String groupId) {
+    groupsByMember.computeIfPresent(memberId, (k, groups) -> {
+      Set<String> next = without(groups, groupId);
+      return next.isEmpty() ? null : next;
+    });
+  }
+
+  private static Set<String> without(Set<String> values, String value) {
+    Set<String> next = new HashSet<>(values);
+    next.remove(value);
+    return Set.copyOf(next);
+  }
+
+  private static List<Map<String, Object>> summaries(Set<String> ids, Map<String, String> names) {
+    List<Map<String, Object>> result = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      Map<String, Object> summary = new LinkedHashMap<>();
+      summary.put("id", id);
+      summary.put("name", names.getOrDefault(id, id));
+      result.add(summary);
+    }
+    return result;
+  }
+
+  // Listing entries carry member objects; write payloads carry bare ids
+  static Set<String> memberIdsOf(Object members, Map<String, String> namesOut) {
+    Set<String> ids = new HashSet<>();
+    if (members instanceof Collection) {
+      for (Object member : (Collection<?>) members) {
+        if (member instanceof Map) {
+          String id = stringOf(((Map<?, ?>) member).get("id"));
+          if (id != null) {
+            ids.add(id);
+            String name = stringOf(((Map<?, ?>) member).get("name"));
+            if (name != null && namesOut != null) {
+              namesOut.put(id, name);
+            }
+          }
+        } else if (member != null) {
+          ids.add(member.toString());
+        }
+      }
+    }
+    return Set.copyOf(ids);
+  }
+
+  private static String stringOf(Object value) {
+    return value != null ? value.toString() : null;
+  }
+}
@@ -0,0 +1,212 @@
+package com.eformsign.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Hedged eformsign calls for idempotent reads on latency-critical paths (document details).
+// When the first attempt hasn't answered by the operation's observed p95, an identical second attempt is
+// sent; whichever returns a value first wins and the other is cancelled (its connection is closed). A failed
+// attempt doesn't end the race while the other is still running; the call fails only when both have (with
+// the first error), or at once when the first fails before a hedge was sent.
+// The latency recorded is how long the call took to produce its value, whichever attempt won, so slow
+// first attempts that lose to a hedge still count towards p95.
+// Hedges spend from a budget that each call tops up by budget-ratio, so hedging adds at most that share
+// of extra upstream load even when eformsign is slow across the board.
+@Component
+public class HedgingPolicy {
+
+  private static final int WINDOW = 256;
+  private static final long MILLI = 1000;
+
+  private final boolean enabled;
+  private final long budgetPerCall;
+  private final long maxBudget;
+  private final int minSamples;
+  private final Duration minDelay;
+  private final MeterRegistry meterRegistry;
+  private final AtomicLong budget;
+  private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+  public HedgingPolicy(MeterRegistry meterRegistry,
+      @Value("${eformsign.hedging.enabled:true}") boolean enabled,
+      @Value("${eformsign.hedging.budget-ratio:0.05}") double budgetRatio,
+      @Value("${eformsign.hedging.max-burst:10}") int maxBurst,
+      @Value("${eformsign.hedging.min-samples:50}") int minSamples,
+      @Value("${eformsign.hedging.min-delay:50ms}") Duration minDelay) {
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.budgetPerCall = Math.round(budgetRatio * MILLI);
+    this.maxBudget = maxBurst * MILLI;
+    this.minSamples = minSamples;
+    this.minDelay = minDelay;
+    this.budget = new AtomicLong(maxBudget);
+  }
+
+  // call must be safe to run twice; each subscription sends one request
+  public <T> Mono<T> hedge(String operation, Supplier<Mono<T>> call) {
+    if (!enabled) {
+      return call.get();
+    }
+    return Mono.defer(() -> {
+      Operation op = operations.computeIfAbsent(operation, this::newOperation);
+      op.calls.increment();
+      deposit();
+      long start = System.nanoTime();
+      Duration delay = op.hedgeDelay();
+      if (delay == null) {
+        return call.get().doOnNext(value -> op.record(System.nanoTime() - start));
+      }
+      return Mono.create(sink -> new Race<>(op, call, start, sink).start(delay));
+    });
+  }
+
+  // One hedged call: the first attempt, maybe a second one, and whichever settles the sink
+  private final class Race<T> {
+    private final Operation op;
+    private final Supplier<Mono<T>> call;
+    private final long start;
+    private final MonoSink<T> sink;
+    private final Disposable.Composite attempts = Disposables.composite();
+    private final AtomicInteger running = new AtomicInteger(1);
+    private final AtomicBoolean settled = new AtomicBoolean();
+    private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+
+    private Race(Operation op, Supplier<Mono<T>> call, long start, MonoSink<T> sink) {
+      this.op = op;
+      this.call = call;
+      this.start = start;
+      this.sink = sink;
+    }
+
+    private void start(Duration delay) {
+      sink.onDispose(attempts);
+      attempt(false);
+      attempts.add(Mono.delay(delay).subscribe(tick -> hedge()));
+    }
+
+    private void hedge() {
+      if (settled.get()) {
+        return;
+      }
+      if (!withdraw()) {
+        op.budgetExhausted.increment(); // The first attempt decides the race
+        return;
+      }
+      running.incrementAndGet();
+      if (settled.get()) {
+        running.decrementAndGet();
+        return;
+      }
+      op.hedges.increment();
+      attempt(true);
+    }
+
+    private void attempt(boolean isHedge) {
+      attempts.add(call.get()
+          .contextWrite(sink.contextView())
+          .subscribe(
+              value -> win(value, isHedge),
+              this::fail,
+              () -> win(null, isHedge)));
+    }
+
+    // value null: the attempt completed without one
+    private void win(T value, boolean isHedge) {
+      if (!settled.compareAndSet(false, true)) {
+        return;
+      }
+      if (value != null) {
+        op.record(System.nanoTime() - start);
+        if (isHedge) {
+          op.wins.increment();
+        }
+      }
+      sink.success(value);
+      attempts.dispose();
+    }
+
+    private void fail(Throwable error) {
+      firstError.compareAndSet(null, error);
+      if (running.decrementAndGet() == 0 && settled.compareAndSet(false, true)) {
+        sink.error(firstError.get());
+        attempts.dispose();
+      }
+    }
+  }
+
+  private void deposit() {
+    budget.accumulateAndGet(budgetPerCall, (current, add) -> Math.min(maxBudget, current + add));
+  }
+
+  private boolean withdraw() {
+    while (true) {
+      long current = budget.get();
+      if (current < MILLI) {
+        return false;
+      }
+      if (budget.compareAndSet(current, current - MILLI)) {
+        return true;
+      }
+    }
+  }
+
+  private Operation newOperation(String name) {
+    return new Operation(
+        meterRegistry.counter("eformsign.hedge.calls", "operation", name),
+        meterRegistry.counter("eformsign.hedge.sent", "operation", name),
+        meterRegistry.counter("eformsign.hedge.wins", "operation", name),
+        meterRegistry.counter("eformsign.hedge.budget-exhausted", "operation", name));
+  }
+
+  // Latency of the last WINDOW successful calls; p95 is recomputed every 32 samples
+  private final class Operation {
+    private final Counter calls;
+    private final Counter hedges;
+    private final Counter wins;
+    private final Counter budgetExhausted;
+    private final long[] samples = new long[WINDOW];
+    private int next;
+    private long count;
+    private volatile long p95Nanos;
+
+    private Operation(Counter calls, Counter hedges, Counter wins, Counter budgetExhausted) {
+      this.calls = calls;
+      this.hedges = hedges;
+      this.wins = wins;
+      this.budgetExhausted = budgetExhausted;
+    }
+
+    private synchronized void record(long nanos) {
+      samples[next] = nanos;
+      next = (next + 1) % WINDOW;
+      count++;
+      if (count == minSamples || (count > minSamples && count % 32 == 0)) {
+        long[] sorted = Arrays.copyOf(samples, (int) Math.min(count, WINDOW));
+        Arrays.sort(sorted);
+        p95Nanos = sorted[(int) (sorted.length * 0.95)];
+      }
+    }
+
+    // null until enough samples to know what slow means
+    private Duration hedgeDelay() {
+      long p95 = p95Nanos;
+      return p95 == 0 ? null : Duration.ofNanos(Math.max(p95, minDelay.toNanos()));
+    }
+  }
+}
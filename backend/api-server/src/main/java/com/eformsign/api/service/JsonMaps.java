@@ -0,0 +1,34 @@
+package com.eformsign.api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Typed views of JSON decoded into plain maps (eformsign responses, webhook payloads) and of the map trees
+// built from it: objects are Map<String, Object>, so the unchecked casts are made here once.
+public final class JsonMaps {
+
+  private JsonMaps() {
+  }
+
+  // null unless value is an object
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> mapOf(Object value) {
+    return value instanceof Map ? (Map<String, Object>) value : null;
+  }
+
+  // The objects of an array, in order (anything else in it is skipped); null unless value is an array
+  public static List<Map<String, Object>> listOf(Object value) {
+    if (!(value instanceof List)) {
+      return null;
+    }
+    List<Map<String, Object>> objects = new ArrayList<>();
+    for (Object element : (List<?>) value) {
+      Map<String, Object> object = mapOf(element);
+      if (object != null) {
+        objects.add(object);
+      }
+    }
+    return objects;
+  }
+}
@@ -0,0 +1,270 @@
+package com.eformsign.api.service;
+
+import com.eformsign.api.event.DocumentStatusChangedEvent;
+import com.eformsign.storage.LeaveBalance;
+import com.eformsign.storage.LeaveBalanceStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+// Leave balances answered from LeaveBalanceStore rows instead of listing and reading every completed leave
+// document per view. Completed leave documents are counted once as they arrive (webhook or change detector
+// events) and a periodic sync catches whatever events missed; cancelled or deleted ones are taken back out.
+// Updates run on one background thread so event publishers (webhook requests, pollers) never wait on eformsign.
+// The sync covers the default company only, so for other companies the rows may miss documents; their
+// balances are reported as not tracked rather than as the full allowance. Sync requests coalesce: at most
+// one sync waits in the queue behind the running one.
+@Slf4j
+@Service
+public class LeaveBalanceService {
+
+  private static final String COMPLETED = "003";
+  private static final Set<String> REVOKED = Set.of("042", "049"); // cancelled, deleted
+  private static final DocumentProjection FIELDS_ONLY = DocumentProjection.parse(DocumentProjection.FIELDS,
+      null, null);
+
+  private final EformsignService eformsignService;
+  private final EformsignTenantRegistry tenants;
+  private final LeaveBalanceStore store;
+  private final String adminId;
+  private final String templateId;
+  private final String syncType;
+  private final String daysField;
+  private final String startDateField;
+  private final BigDecimal annualDays;
+  private final ThreadPoolExecutor updater;
+  private final AtomicBoolean syncPending = new AtomicBoolean();
+  private final Runnable syncTask = () -> {
+    syncPending.set(false);
+    sync();
+  };
+
+  public LeaveBalanceService(EformsignService eformsignService, EformsignTenantRegistry tenants,
+      LeaveBalanceStore store, MeterRegistry meterRegistry,
+      @Value("${app.admin.id}") String adminId,
+      @Value("${app.leave.template-id:}") String templateId,
+      @Value("${app.leave.sync-type:04}") String syncType,
+      @Value("${app.leave.days-field:일간}") String daysField,
+      @Value("${app.leave.start-date-field:휴가 시작일}") String startDateField,
+      @Value("${app.leave.annual-days:15}") BigDecimal annualDays,
+      @Value("${app.leave.queue-capacity:10000}") int queueCapacity) {
+    this.eformsignService = eformsignService;
+    this.tenants = tenants;
+    this.store = store;
+    this.adminId = adminId;
+    this.templateId = templateId;
+    this.syncType = syncType;
+    this.daysField = daysField;
+    this.startDateField = startDateField;
+    this.annualDays = annualDays;
+    this.updater = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+        r -> {
+          Thread t = new Thread(r, "leave-balance");
+          t.setDaemon(true);
+          return t;
+        },
+        // The next sync counts whatever was dropped here
+        (task, executor) -> {
+          if (task == syncTask) {
+            syncPending.set(false);
+          }
+          log.warn("Leave balance queue full; an update waits for the next sync");
+        });
+    Gauge.builder("leave.balance.queue", updater, e -> e.getQueue().size()).register(meterRegistry);
+  }
+
+  public Map<String, Object> getBalance(String memberId, String period) {
+    String companyId = tenants.current().getCompanyId();
+    String resolved = period != null ? period : String.valueOf(Year.now().getValue());
+    return toResponse(store.find(companyId, memberId, resolved)
+        .orElseGet(() -> LeaveBalance.empty(companyId, memberId, resolved)), isTracked(companyId));
+  }
+
+  public List<Map<String, Object>> getBalances(String period) {
+    String companyId = tenants.current().getCompanyId();
+    String resolved = period != null ? period : String.valueOf(Year.now().getValue());
+    boolean tracked = isTracked(companyId);
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (LeaveBalance balance : store.findByPeriod(companyId, resolved)) {
+      result.add(toResponse(balance, tracked));
+    }
+    return result;
+  }
+
+  @EventListener
+  public void onDocumentStatusChanged(DocumentStatusChangedEvent event) {
+    String statusType = event.getStatusType();
+    if (!isEnabled() || event.getDocumentId() == null || statusType == null) {
+      return;
+    }
+    String documentId = event.getDocumentId();
+    if (REVOKED.contains(statusType)) {
+      updater.execute(() -> {
+        if (store.remove(documentId)) {
+          log.info("Leave document {} revoked ({}); balance reduced", documentId, statusType);
+        }
+      });
+    } else if (COMPLETED.equals(statusType)) {
+      String companyId = event.getCompanyId();
+      updater.execute(() -> {
+        try {
+          tenants.callAs(companyId, () -> {
+            record(eformsignService.getDocument(adminId, documentId, FIELDS_ONLY));
+            return null;
+          });
+        } catch (Exception e) {
+          log.warn("Could not count leave document {}: {}", documentId, e.getMessage());
+        }
+      });
+    }
+  }
+
+  // Only documents not counted yet are read in detail, so a sync over an up-to-date store is listing calls only
+  @Scheduled(fixedDelayString = "${app.leave.sync-interval-ms:21600000}",
+      initialDelayString = "${app.leave.sync-initial-delay-ms:60000}")
+  public void scheduledSync() {
+    if (isEnabled()) {
+      queueSync();
+    }
+  }
+
+  public void requestSync() {
+    if (!isEnabled()) {
+      throw new IllegalArgumentException("Leave template is not configured (app.leave.template-id)");
+    }
+    queueSync();
+  }
+
+  // A sync already waiting will see everything this request would have
+  private void queueSync() {
+    if (syncPending.compareAndSet(false, true)) {
+      updater.execute(syncTask);
+    }
+  }
+
+  private void sync() {
+    int counted = 0;
+    try (Stream<Map<String, Object>> documents = eformsignService
+        .streamDocuments(adminId, syncType, null, templateId,
+            listed -> COMPLETED.equals(EformsignService.statusTypeOf(listed))
+                && !store.isRecorded(String.valueOf(listed.get("id"))))
+        .toStream()) {
+      for (Map<String, Object> document : (Iterable<Map<String, Object>>) documents::iterator) {
+        if (record(document)) {
+          counted++;
+        }
+      }
+      log.info("Leave balance sync counted {} new documents", counted);
+    } catch (Exception e) {
+      log.warn("Leave balance sync stopped after {} new documents: {}", counted, e.getMessage());
+    }
+  }
+
+  private boolean record(Map<String, Object> document) {
+    String documentId = String.valueOf(document.get("id"));
+    Object template = document.get("template");
+    Object documentTemplateId = template instanceof Map ? ((Map<?, ?>) template).get("id") : null;
+    if (!templateId.equals(String.valueOf(documentTemplateId))
+        || !COMPLETED.equals(EformsignService.statusTypeOf(document))) {
+      return false;
+    }
+    Object creator = document.get("creator");
+    Object memberId = creator instanceof Map ? ((Map<?, ?>) creator).get("id") : null;
+    Map<String, Object> fields = fieldValues(document);
+    BigDecimal days = parseDays(fields.get(daysField));
+    if (memberId == null || days == null) {
+      log.warn("Leave document {} has no creator or no valid '{}' field; not counted", documentId, daysField);
+      return false;
+    }
+    String companyId = tenants.current().getCompanyId();
+    String period = periodOf(fields.get(startDateField));
+    try {
+      return store.record(documentId, companyId, memberId.toString(), period, days);
+    } catch (DuplicateKeyException e) {
+      // Another replica counted it or created the balance row first
+      return store.record(documentId, companyId, memberId.toString(), period, days);
+    }
+  }
+
+  // Untracked balances carry no allowance or remaining days: the rows may be missing documents
+  private Map<String, Object> toResponse(LeaveBalance balance, boolean tracked) {
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("memberId", balance.getMemberId());
+    response.put("period", balance.getPeriod());
+    response.put("tracked", tracked);
+    if (!tracked) {
+      return response;
+    }
+    response.put("allowanceDays", annualDays);
+    response.put("usedDays", balance.getUsedDays());
+    response.put("remainingDays", annualDays.subtract(balance.getUsedDays()));
+    response.put("documentCount", balance.getDocumentCount());
+    return response;
+  }
+
+  private boolean isEnabled() {
+    return !templateId.isEmpty();
+  }
+
+  private boolean isTracked(String companyId) {
+    return isEnabled() && tenants.canonicalCompanyId(companyId) == null;
+  }
+
+  // Leave year: the year of the start date (yyyy-MM-dd, yyyy.MM.dd, ...), else the current year
+  private static String periodOf(Object startDate) {
+    String text = startDate != null ? startDate.toString().trim() : "";
+    if (text.length() >= 4 && text.substring(0, 4).chars().allMatch(Character::isDigit)) {
+      return text.substring(0, 4);
+    }
+    return String.valueOf(Year.now().getValue());
+  }
+
+  private static BigDecimal parseDays(Object value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      BigDecimal days = new BigDecimal(value.toString().trim());
+      return days.signum() >= 0 ? days : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static Map<String, Object> fieldValues(Map<String, Object> document) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    Object fields = document.get("fields");
+    if (fields instanceof List) {
+      for (Object field : (List<?>) fields) {
+        if (field instanceof Map && ((Map<?, ?>) field).get("id") != null) {
+          values.put(((Map<?, ?>) field).get("id").toString(), ((Map<?, ?>) field).get("value"));
+        }
+      }
+    }
+    return values;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    updater.shutdownNow();
+  }
+}
@@ -1,19 +1,31 @@
 package com.eformsign.api.service;
 
+import com.eformsign.api.config.auth.AccessDeniedException;
+import com.eformsign.api.config.auth.AuthPrincipal;
+import com.eformsign.api.config.auth.Permission;
+import com.eformsign.api.profiling.ProfilingEvents;
 import com.eformsign.api.repository.MemberRepository;
 import com.eformsign.common.entity.Member;
 import com.eformsign.common.type.MemberRole;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MemberService {
 
   private final MemberRepository memberRepository;
+  private final PasswordHashingService passwordHashingService;
 
   @org.springframework.beans.factory.annotation.Value("${app.admin.id}")
   private String adminId;
@@ -21,25 +33,75 @@ public class MemberService {
   // Ideally we would inject password too to verify if needed, but
   // getMemberByLoginId assumes auth is done
 
+  // companyId: the eformsign company the member belongs to, null for the default company
   @Transactional
-  public Member createMember(String loginId, String password, String name) {
-    if (memberRepository.findByLoginId(loginId).isPresent()) {
+  public Member createMember(String loginId, String password, String name, String companyId) {
+    if (ProfilingEvents.database("members.findByLoginId", () -> memberRepository.findByLoginId(loginId)).isPresent()) {
       throw new IllegalArgumentException("Login ID already exists");
     }
 
     Member member = Member.builder()
         .loginId(loginId)
-        .password(password) // In real app, use PasswordEncoder
+        .password(passwordHashingService.encode(password))
         .name(name)
         .role(MemberRole.MEMBER)
+        .companyId(companyId)
         .build();
 
-    return memberRepository.save(member);
+    return ProfilingEvents.database("members.save", () -> memberRepository.save(member));
+  }
+
+  // Inserts missing members (loginId -> name) of one company, each in its own short transaction (the
+  // repository's), so one failed insert (e.g. a member created concurrently) doesn't undo the others.
+  // Fetch upstream data before calling so no transaction spans an eformsign call.
+  public int syncMembers(Map<String, String> namesByLoginId, String defaultPassword, String companyId) {
+    if (namesByLoginId.isEmpty()) {
+      return 0;
+    }
+    Set<String> existing = new HashSet<>(ProfilingEvents.database("members.findExistingLoginIds",
+        () -> memberRepository.findExistingLoginIds(namesByLoginId.keySet())));
+    // BCrypt output embeds its own salt, so one hash can be shared by every synced member
+    String encodedPassword = passwordHashingService.encode(defaultPassword);
+
+    int created = 0;
+    for (Map.Entry<String, String> entry : namesByLoginId.entrySet()) {
+      String loginId = entry.getKey();
+      if (existing.contains(loginId)) {
+        continue;
+      }
+      Member member = Member.builder()
+          .loginId(loginId)
+          .password(encodedPassword)
+          .name(entry.getValue())
+          .role(MemberRole.MEMBER)
+          .companyId(companyId)
+          .build();
+      try {
+        ProfilingEvents.database("members.save", () -> memberRepository.save(member));
+        created++;
+      } catch (DataAccessException e) {
+        log.warn("Failed to sync member {}: {}", loginId, e.getMessage());
+      }
+    }
+    return created;
+  }
+
+  @Transactional
+  public void changeRole(AuthPrincipal actor, String loginId, MemberRole role) {
+    Member member = ProfilingEvents.database("members.findByLoginId", () -> memberRepository.findByLoginId(loginId))
+        .filter(m -> Objects.equals(m.getCompanyId(), actor.getCompanyId()))
+        .orElseThrow(() -> new IllegalArgumentException("Member not found"));
+    // Only roles within the actor's own permissions can be granted or taken away,
+    // e.g. a company manager can neither create managers nor demote one
+    if (!actor.has(Permission.grantedTo(member.getRole())) || !actor.has(Permission.grantedTo(role))) {
+      throw new AccessDeniedException("Cannot change a role with permissions you don't have");
+    }
+    member.changeRole(role);
   }
 
   @Transactional(readOnly = true)
-  public List<Member> getAllMembers() {
-    return memberRepository.findAll();
+  public List<Member> getMembers(String companyId) {
+    return ProfilingEvents.database("members.findByCompany", () -> memberRepository.findByCompany(companyId));
   }
 
   @Transactional(readOnly = true)
@@ -52,7 +114,7 @@ public class MemberService {
           .password("") // Password not needed for display
           .build();
     }
-    return memberRepository.findByLoginId(loginId)
+    return ProfilingEvents.database("members.findByLoginId", () -> memberRepository.findByLoginId(loginId))
         .orElseThrow(() -> new IllegalArgumentException("Member not found"));
   }
 }
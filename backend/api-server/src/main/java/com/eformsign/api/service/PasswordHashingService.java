@@ -0,0 +1,88 @@
+package com.eformsign.api.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+  private final PasswordEncoder passwordEncoder;
+  private final ThreadPoolExecutor hashExecutor;
+  private final long verifyTimeoutMillis;
+  private final String unmatchableHash; // Same strength as stored hashes, so checking against it costs the same
+
+  public PasswordHashingService(
+      MeterRegistry meterRegistry,
+      @Value("${app.auth.bcrypt-strength:10}") int strength,
+      @Value("${app.auth.hash-threads:0}") int threads,
+      @Value("${app.auth.hash-queue-capacity:256}") int queueCapacity,
+      @Value("${app.auth.verify-timeout-ms:2000}") long verifyTimeoutMillis) {
+    this.passwordEncoder = new BCryptPasswordEncoder(strength);
+    this.verifyTimeoutMillis = verifyTimeoutMillis;
+    this.unmatchableHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+    // BCrypt is pure CPU: size the pool to the cores and bound the queue so a login storm
+    // is rejected early instead of piling up on Tomcat's request threads.
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger seq = new AtomicInteger();
+    this.hashExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        r -> {
+          Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("auth.hash.queue", hashExecutor, e -> e.getQueue().size()).register(meterRegistry);
+    Gauge.builder("auth.hash.active", hashExecutor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+  }
+
+  public String encode(String rawPassword) {
+    return passwordEncoder.encode(rawPassword);
+  }
+
+  // Throws RejectedExecutionException when the hash pool is saturated
+  public boolean matches(String rawPassword, String encodedPassword) {
+    Future<Boolean> result = hashExecutor.submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    try {
+      return result.get(verifyTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      result.cancel(true);
+      throw new RejectedExecutionException("Password verification timed out");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Password verification interrupted");
+    } catch (ExecutionException e) {
+      log.error("Password verification failed", e.getCause());
+      return false;
+    }
+  }
+
+  // A full check that never succeeds, for logins whose id does not exist
+  public void matchesNothing(String rawPassword) {
+    matches(rawPassword, unmatchableHash);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    hashExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,39 @@
+package com.eformsign.api.service;
+
+import com.eformsign.api.profiling.ProfilingEvents;
+import com.eformsign.storage.RevokedTokenStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Revoked refresh-token ids and families, kept in the database so every replica sees the same list: a
+// token rotated on one replica can't be replayed on another, and a family revoked anywhere is revoked
+// everywhere. Only refresh and logout consult it. Entries are dropped once the token would have expired.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+  private final RevokedTokenStore store;
+
+  public boolean isRevoked(String id) {
+    if (id == null) {
+      return false;
+    }
+    return ProfilingEvents.database("revoked_tokens.isRevoked", () -> store.isRevoked(id));
+  }
+
+  // Returns false if the id was already revoked, which makes refresh rotation single-use
+  public boolean revoke(String id, long expiresAtMillis) {
+    return ProfilingEvents.database("revoked_tokens.revoke", () -> store.revoke(id, expiresAtMillis));
+  }
+
+  @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+  public void purgeExpired() {
+    int purged = store.purgeExpired(System.currentTimeMillis());
+    if (purged > 0) {
+      log.debug("Purged {} expired revocations", purged);
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package com.eformsign.api.service;
+
+import com.eformsign.storage.SharedCacheStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// L1: bounded in-heap near-cache on this replica; concurrent misses for a key share one load.
+// L2: SharedCacheStore, shared by every replica. An L1 miss reads L2 before going upstream, and a
+// short lease makes a single replica load a key that several are missing at once, so the upstream
+// call rate doesn't grow with the number of replicas.
+// Invalidation clears both levels and is broadcast so every replica drops its L1 copy.
+// The shared tier is an optimisation: when it fails, the cache degrades to L1 plus upstream.
+// Caches of secrets (shareValues false) never write values to L2; they are L1 per replica and only
+// take part in invalidation broadcasts.
+@Slf4j
+public class TwoLevelCache {
+
+  private static final String NODE_ID = UUID.randomUUID().toString();
+  private static final AtomicLong STAMPS = new AtomicLong();
+  private static final String ALL = "*";
+  private static final Duration LEASE_POLL = Duration.ofMillis(100);
+  private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+  };
+
+  private final String companyId;
+  private final String name;
+  private final String sharedPrefix;
+  private final SharedCacheStore store;
+  private final ObjectMapper objectMapper;
+  private final Function<Map<String, Object>, Duration> ttlOf;
+  private final Duration lease;
+  private final boolean shareValues;
+  private final Consumer<Map<String, Object>> onLoad;
+  private final Runnable onRemoteInvalidation;
+  private final AsyncCache<String, Timed> local;
+
+  TwoLevelCache(String companyId, String name, long maxLocalEntries, Function<Map<String, Object>, Duration> ttlOf,
+      SharedCacheStore store, ObjectMapper objectMapper, Duration lease, boolean shareValues,
+      Consumer<Map<String, Object>> onLoad, Runnable onRemoteInvalidation) {
+    this.companyId = companyId;
+    this.name = name;
+    this.sharedPrefix = "eformsign:" + companyId + ":" + name + ":";
+    this.store = store;
+    this.objectMapper = objectMapper;
+    this.ttlOf = ttlOf;
+    this.lease = lease;
+    this.shareValues = shareValues;
+    this.onLoad = onLoad;
+    this.onRemoteInvalidation = onRemoteInvalidation;
+    this.local = Caffeine.newBuilder()
+        .maximumSize(maxLocalEntries)
+        .expireAfter(new TimedExpiry())
+        .buildAsync();
+  }
+
+  public Mono<Map<String, Object>> get(String key, Function<String, Mono<Map<String, Object>>> loader) {
+    // suppressCancel: one waiter giving up must not cancel the load others share
+    return Mono.fromFuture(local.get(key, (k, executor) -> load(k, loader).toFuture()), true)
+        .map(timed -> timed.value);
+  }
+
+  // Identifies the value this replica currently serves for key: every load gets a new one, and an
+  // invalidated or expired key has none (-1) until it is loaded again
+  public long version(String key) {
+    CompletableFuture<Timed> entry = local.getIfPresent(key);
+    return entry != null && entry.isDone() && !entry.isCompletedExceptionally() ? entry.join().stamp : -1;
+  }
+
+  public void invalidate(String key) {
+    local.synchronous().invalidate(key);
+    if (shareValues) {
+      shared(() -> store.delete(sharedPrefix + key));
+    }
+    broadcast("=" + key);
+  }
+
+  public void invalidateAll() {
+    local.synchronous().invalidateAll();
+    if (shareValues) {
+      shared(() -> store.deleteByPrefix(sharedPrefix));
+    }
+    broadcast(ALL);
+  }
+
+  // Applies an invalidation published by another replica; lookup finds the cache by company and name
+  // if this replica has that company active
+  public static void onMessage(String message, BiFunction<String, String, TwoLevelCache> lookup) {
+    String[] parts = message.split("\\|", 4);
+    if (parts.length != 4 || NODE_ID.equals(parts[0])) {
+      return;
+    }
+    TwoLevelCache cache = lookup.apply(parts[1], parts[2]);
+    if (cache == null) {
+      return;
+    }
+    if (ALL.equals(parts[3])) {
+      cache.local.synchronous().invalidateAll();
+    } else {
+      cache.local.synchronous().invalidate(parts[3].substring(1));
+    }
+    cache.onRemoteInvalidation.run();
+  }
+
+  private Mono<Timed> load(String key, Function<String, Mono<Map<String, Object>>> loader) {
+    if (!shareValues) {
+      return loader.apply(key)
+          .map(value -> new Timed(value, ttlOf.apply(value)))
+          .doOnNext(timed -> onLoad.accept(timed.value));
+    }
+    String sharedKey = sharedPrefix + key;
+    return readShared(sharedKey)
+        .switchIfEmpty(Mono.defer(() -> blocking(() -> store.tryLock(sharedKey, lease))
+            .onErrorReturn(true)
+            .flatMap(locked -> locked
+                ? loadUpstream(key, sharedKey, loader).doFinally(signal -> shared(() -> store.unlock(sharedKey)))
+                // Another replica is loading: wait for its result, but never longer than the lease
+                : readShared(sharedKey)
+                    .repeatWhenEmpty(repeats -> repeats.take(lease.toMillis() / LEASE_POLL.toMillis())
+                        .delayElements(LEASE_POLL))
+                    .switchIfEmpty(Mono.defer(() -> loadUpstream(key, sharedKey, loader))))))
+        .doOnNext(timed -> onLoad.accept(timed.value));
+  }
+
+  private Mono<Timed> loadUpstream(String key, String sharedKey, Function<String, Mono<Map<String, Object>>> loader) {
+    return loader.apply(key).flatMap(value -> {
+      Duration ttl = ttlOf.apply(value);
+      return blocking(() -> {
+        if (!ttl.isZero() && !ttl.isNegative()) {
+          store.put(sharedKey, objectMapper.writeValueAsString(value), ttl);
+        }
+        return true;
+      })
+          .onErrorResume(e -> {
+            log.warn("Could not write {} to the shared cache: {}", sharedKey, e.getMessage());
+            return Mono.just(false);
+          })
+          .thenReturn(new Timed(value, ttl));
+    });
+  }
+
+  private Mono<Timed> readShared(String sharedKey) {
+    return blocking(() -> store.get(sharedKey)
+        .filter(entry -> !entry.remaining().isZero())
+        .map(entry -> {
+          try {
+            return new Timed(objectMapper.readValue(entry.getValue(), MAP_TYPE), entry.remaining());
+          } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable shared cache entry {}", sharedKey);
+            return null;
+          }
+        })
+        .orElse(null))
+        .onErrorResume(e -> {
+          log.warn("Shared cache read failed for {}: {}", sharedKey, e.getMessage());
+          return Mono.empty();
+        });
+  }
+
+  private void broadcast(String target) {
+    shared(() -> store.publish(NODE_ID + "|" + companyId + "|" + name + "|" + target));
+  }
+
+  private void shared(Runnable call) {
+    try {
+      call.run();
+    } catch (RuntimeException e) {
+      log.warn("Shared cache call failed for {}: {}", sharedPrefix, e.getMessage());
+    }
+  }
+
+  // Store calls may block (JDBC); they never run on a Netty event loop
+  private static <T> Mono<T> blocking(Callable<T> call) {
+    return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+  }
+
+  private static final class Timed {
+    private final Map<String, Object> value;
+    private final long ttlNanos;
+    private final long stamp = STAMPS.incrementAndGet();
+
+    private Timed(Map<String, Object> value, Duration ttl) {
+      this.value = value;
+      this.ttlNanos = Math.max(0, ttl.toNanos());
+    }
+  }
+
+  // L1 entries never outlive what is left of their L2 TTL
+  private static final class TimedExpiry implements Expiry<String, Timed> {
+    @Override
+    public long expireAfterCreate(String key, Timed timed, long currentTime) {
+      return timed.ttlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Timed timed, long currentTime, long currentDuration) {
+      return timed.ttlNanos;
+    }
+
+    @Override
+    public long expireAfterRead(String key, Timed timed, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,6 @@
+-- Passwords are stored as BCrypt hashes; convert any legacy plaintext rows in place.
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+UPDATE members
+SET password = crypt(password, gen_salt('bf', 10))
+WHERE password NOT LIKE '$2%';
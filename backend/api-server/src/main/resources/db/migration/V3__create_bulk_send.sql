@@ -0,0 +1,30 @@
+CREATE TABLE IF NOT EXISTS bulk_send_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    member_id VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255),
+    template_id VARCHAR(255) NOT NULL,
+    document_name VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    total_count INTEGER NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP,
+    UNIQUE (member_id, idempotency_key)
+);
+
+CREATE TABLE IF NOT EXISTS bulk_send_items (
+    id BIGSERIAL PRIMARY KEY,
+    job_id BIGINT NOT NULL REFERENCES bulk_send_jobs (id),
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    recipient_id VARCHAR(255) NOT NULL,
+    recipient_name VARCHAR(255),
+    fields TEXT,
+    status VARCHAR(50) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    document_id VARCHAR(255),
+    error VARCHAR(1000),
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_bulk_send_items_status ON bulk_send_items (status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_bulk_send_items_job ON bulk_send_items (job_id);
@@ -0,0 +1,13 @@
+-- Credentials per eformsign company; the company in application.yml keeps working without a row
+CREATE TABLE IF NOT EXISTS eformsign_companies (
+    company_id VARCHAR(255) PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    api_key VARCHAR(255) NOT NULL,
+    secret_key VARCHAR(255) NOT NULL,
+    api_url VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- NULL: the default company
+ALTER TABLE members ADD COLUMN IF NOT EXISTS company_id VARCHAR(255);
+ALTER TABLE bulk_send_jobs ADD COLUMN IF NOT EXISTS company_id VARCHAR(255);
@@ -0,0 +1,15 @@
+-- Shared cache tier (storage.shared-cache.type: jdbc): entries shared by every replica, plus an
+-- append-only invalidation log each replica polls
+CREATE TABLE IF NOT EXISTS shared_cache_entries (
+    cache_key VARCHAR(512) PRIMARY KEY,
+    cache_value TEXT,
+    expires_at BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_shared_cache_entries_expires ON shared_cache_entries (expires_at);
+
+CREATE TABLE IF NOT EXISTS shared_cache_events (
+    id BIGSERIAL PRIMARY KEY,
+    message VARCHAR(1024) NOT NULL,
+    created_at BIGINT NOT NULL
+);
@@ -0,0 +1,20 @@
+-- Leave balances: one ledger row per counted leave document (so events are applied once and can be
+-- reverted) plus running totals per member and leave year, read directly by /api/v1/leave
+CREATE TABLE IF NOT EXISTS leave_usage (
+    document_id VARCHAR(255) PRIMARY KEY,
+    company_id VARCHAR(255) NOT NULL,
+    member_id VARCHAR(255) NOT NULL,
+    period VARCHAR(16) NOT NULL,
+    days DECIMAL(6, 2) NOT NULL,
+    recorded_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS leave_balances (
+    company_id VARCHAR(255) NOT NULL,
+    member_id VARCHAR(255) NOT NULL,
+    period VARCHAR(16) NOT NULL,
+    used_days DECIMAL(8, 2) NOT NULL,
+    document_count INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (company_id, member_id, period)
+);
@@ -0,0 +1,8 @@
+-- Revoked refresh-token ids and families, shared by every replica so a rotated token can be used only once
+-- anywhere; rows are purged once the token would have expired anyway
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id VARCHAR(255) PRIMARY KEY,
+    expires_at BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires ON revoked_tokens (expires_at);
@@ -0,0 +1,5 @@
+-- Invalidation polls re-read a trailing window of events by created_at
+CREATE INDEX IF NOT EXISTS idx_shared_cache_events_created ON shared_cache_events (created_at);
+
+-- eformsign access tokens are no longer shared between replicas; drop the ones stored before
+DELETE FROM shared_cache_entries WHERE cache_key LIKE 'eformsign:%:token:%';
@@ -4,5 +4,95 @@ CREATE TABLE IF NOT EXISTS members (
     password VARCHAR(255) NOT NULL,
     name VARCHAR(255) NOT NULL,
     role VARCHAR(50) NOT NULL,
+    company_id VARCHAR(255),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+
+CREATE TABLE IF NOT EXISTS bulk_send_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    member_id VARCHAR(255) NOT NULL,
+    company_id VARCHAR(255),
+    idempotency_key VARCHAR(255),
+    template_id VARCHAR(255) NOT NULL,
+    document_name VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    total_count INTEGER NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP,
+    UNIQUE (member_id, idempotency_key)
+);
+
+CREATE TABLE IF NOT EXISTS bulk_send_items (
+    id BIGSERIAL PRIMARY KEY,
+    job_id BIGINT NOT NULL REFERENCES bulk_send_jobs (id),
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    recipient_id VARCHAR(255) NOT NULL,
+    recipient_name VARCHAR(255),
+    fields TEXT,
+    status VARCHAR(50) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    document_id VARCHAR(255),
+    error VARCHAR(1000),
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_bulk_send_items_status ON bulk_send_items (status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_bulk_send_items_job ON bulk_send_items (job_id);
+
+CREATE TABLE IF NOT EXISTS eformsign_companies (
+    company_id VARCHAR(255) PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    api_key VARCHAR(255) NOT NULL,
+    secret_key VARCHAR(255) NOT NULL,
+    api_url VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Shared cache tier (storage.shared-cache.type: jdbc): entries shared by every replica, plus an
+-- append-only invalidation log each replica polls
+CREATE TABLE IF NOT EXISTS shared_cache_entries (
+    cache_key VARCHAR(512) PRIMARY KEY,
+    cache_value TEXT,
+    expires_at BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_shared_cache_entries_expires ON shared_cache_entries (expires_at);
+
+CREATE TABLE IF NOT EXISTS shared_cache_events (
+    id BIGSERIAL PRIMARY KEY,
+    message VARCHAR(1024) NOT NULL,
+    created_at BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_shared_cache_events_created ON shared_cache_events (created_at);
+
+-- Leave balances: one ledger row per counted leave document (so events are applied once and can be
+-- reverted) plus running totals per member and leave year, read directly by /api/v1/leave
+CREATE TABLE IF NOT EXISTS leave_usage (
+    document_id VARCHAR(255) PRIMARY KEY,
+    company_id VARCHAR(255) NOT NULL,
+    member_id VARCHAR(255) NOT NULL,
+    period VARCHAR(16) NOT NULL,
+    days DECIMAL(6, 2) NOT NULL,
+    recorded_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS leave_balances (
+    company_id VARCHAR(255) NOT NULL,
+    member_id VARCHAR(255) NOT NULL,
+    period VARCHAR(16) NOT NULL,
+    used_days DECIMAL(8, 2) NOT NULL,
+    document_count INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (company_id, member_id, period)
+);
+
+-- Revoked refresh-token ids and families, shared by every replica so a rotated token can be used only once
+-- anywhere; rows are purged once the token would have expired anyway
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id VARCHAR(255) PRIMARY KEY,
+    expires_at BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires ON revoked_tokens (expires_at);
@@ -0,0 +1,155 @@
+package com.eformsign.api;
+
+import com.eformsign.api.repository.EformsignCompanyRepository;
+import com.eformsign.api.service.MemberService;
+import com.eformsign.common.entity.EformsignCompany;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Requests that touch the database and then wait on a stalled eformsign must not keep a pooled connection
+// for the length of the wait. Each request belongs to its own company, so each one reads that company's
+// credentials through JPA before its first eformsign call.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "storage.shared-cache.poll-interval-ms=3600000",
+    "bulk-send.poll-interval-ms=3600000",
+    "eformsign.events.poll-interval-ms=3600000",
+    "eformsign.hedging.enabled=false"
+})
+class UpstreamStallTest {
+
+  private static final Duration STALL = Duration.ofSeconds(5);
+  private static final int REQUESTS = 8;
+  private static final HttpServer UPSTREAM = stubUpstream();
+  private static volatile boolean stalling;
+  private static final AtomicInteger stalled = new AtomicInteger();
+
+  @LocalServerPort
+  private int port;
+  @Autowired
+  private DataSource dataSource;
+  @Autowired
+  private MemberService memberService;
+  @Autowired
+  private EformsignCompanyRepository companyRepository;
+
+  private final HttpClient http = HttpClient.newHttpClient();
+
+  @DynamicPropertySource
+  static void upstream(DynamicPropertyRegistry registry) {
+    registry.add("eformsign.api.url", () -> "http://127.0.0.1:" + UPSTREAM.getAddress().getPort());
+  }
+
+  @AfterAll
+  static void stopUpstream() {
+    UPSTREAM.stop(0);
+  }
+
+  @Test
+  void holdsNoConnectionWhileUpstreamStalls() throws Exception {
+    List<String> tokens = new ArrayList<>();
+    for (int i = 0; i < REQUESTS; i++) {
+      String companyId = "stall-company-" + i;
+      companyRepository.save(EformsignCompany.builder()
+          .companyId(companyId).name(companyId).apiKey("key").secretKey("secret").build());
+      memberService.createMember("stall-" + i, "password", "Stall " + i, companyId);
+      tokens.add(login("stall-" + i));
+    }
+    HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+
+    stalling = true;
+    List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+    for (int i = 0; i < REQUESTS; i++) {
+      calls.add(http.sendAsync(HttpRequest.newBuilder(uri("/api/v1/eformsign/documents/d" + i))
+          .header("Authorization", "Bearer " + tokens.get(i)).build(), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    long deadline = System.nanoTime() + STALL.toNanos() / 2;
+    while (stalled.get() < REQUESTS && System.nanoTime() < deadline) {
+      Thread.sleep(20);
+    }
+    assertThat(stalled.get()).as("requests waiting on eformsign").isEqualTo(REQUESTS);
+    int maxActive = 0;
+    while (System.nanoTime() < deadline + STALL.toNanos() / 4) {
+      maxActive = Math.max(maxActive, pool.getActiveConnections());
+      Thread.sleep(10);
+    }
+    assertThat(calls).noneMatch(CompletableFuture::isDone);
+    assertThat(maxActive).as("connections held during the stall").isZero();
+
+    CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).join();
+  }
+
+  private String login(String loginId) throws Exception {
+    String body = "{\"loginId\":\"" + loginId + "\",\"password\":\"password\"}";
+    HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/api/v1/auth/login"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    Matcher token = Pattern.compile("\"accessToken\":\"([^\"]+)\"").matcher(response.body());
+    assertThat(token.find()).as("login response %s", response.body()).isTrue();
+    return token.group(1);
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://127.0.0.1:" + port + path);
+  }
+
+  // Answers at once until the test starts stalling, then holds every call for STALL
+  private static HttpServer stubUpstream() {
+    try {
+      HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+      server.setExecutor(Executors.newCachedThreadPool());
+      server.createContext("/", exchange -> {
+        if (stalling) {
+          stalled.incrementAndGet();
+          try {
+            Thread.sleep(STALL.toMillis());
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        String path = exchange.getRequestURI().getPath();
+        String body = path.endsWith("/access_token")
+            ? "{\"oauth_token\":{\"access_token\":\"t\",\"refresh_token\":\"r\",\"expires_in\":3600}}"
+            : path.endsWith("/members") ? "{\"members\":[]}" : "{}";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(bytes);
+        }
+      });
+      server.start();
+      return server;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.eformsign.api.config;
+
+import com.eformsign.api.config.InboundRateLimiter.RouteClass;
+import com.eformsign.common.type.MemberRole;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InboundRateLimiterTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  private final AtomicLong clock = new AtomicLong(42 * SECOND);
+
+  @Test
+  void allowsTheBurstThenOneRequestPerInterval() {
+    // 2 per second, burst 3
+    InboundRateLimiter limiter = limiter("2/3");
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).as("request %d", i).isZero();
+    }
+    assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).isEqualTo(SECOND / 2);
+
+    clock.addAndGet(SECOND / 2 - 1);
+    assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).isEqualTo(1);
+    clock.addAndGet(1);
+    assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).isZero();
+    assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).isPositive();
+
+    // Idle long enough to refill, but never beyond the burst
+    clock.addAndGet(10 * SECOND);
+    for (int i = 0; i < 3; i++) {
+      assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).as("request %d", i).isZero();
+    }
+    assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).isPositive();
+  }
+
+  @Test
+  void keepsUsersAndRouteClassesApart() {
+    InboundRateLimiter limiter = limiter("1/1");
+
+    assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).isZero();
+    assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).isPositive();
+    assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.EXPORT)).isZero();
+    assertThat(limiter.tryAcquire("lee", MemberRole.MEMBER, RouteClass.LOCAL)).isZero();
+  }
+
+  @Test
+  void unlimitedWhenOff() {
+    InboundRateLimiter limiter = limiter("off");
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL)).isZero();
+    }
+  }
+
+  @Test
+  void roundsRetryAfterUpToWholeSeconds() {
+    assertThat(InboundRateLimiter.retryAfterSeconds(1)).isEqualTo(1);
+    assertThat(InboundRateLimiter.retryAfterSeconds(SECOND)).isEqualTo(1);
+    assertThat(InboundRateLimiter.retryAfterSeconds(SECOND + 1)).isEqualTo(2);
+    assertThat(InboundRateLimiter.retryAfterSeconds(20 * SECOND - 1)).isEqualTo(20);
+
+    // 0.05 per second, burst 2: the third request waits 20s
+    InboundRateLimiter limiter = limiter("0.05/2");
+    limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.EXPORT);
+    limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.EXPORT);
+    clock.addAndGet(SECOND / 4);
+    long wait = limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.EXPORT);
+    assertThat(InboundRateLimiter.retryAfterSeconds(wait)).isEqualTo(20);
+  }
+
+  // With the clock frozen, exactly the burst gets through however the CASes interleave: a lost update
+  // would let more through
+  @Test
+  void contendedRequestsNeverExceedTheBurst() throws Exception {
+    int burst = 50;
+    InboundRateLimiter limiter = limiter("1/" + burst);
+    int threads = 8;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> allowed = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        allowed.add(pool.submit(() -> {
+          start.await();
+          int count = 0;
+          for (int i = 0; i < 1000; i++) {
+            if (limiter.tryAcquire("kim", MemberRole.MEMBER, RouteClass.LOCAL) == 0) {
+              count++;
+            }
+          }
+          return count;
+        }));
+      }
+      start.countDown();
+      int total = 0;
+      for (Future<Integer> future : allowed) {
+        total += future.get(30, TimeUnit.SECONDS);
+      }
+      assertThat(total).isEqualTo(burst);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private InboundRateLimiter limiter(String spec) {
+    return new InboundRateLimiter((role, routeClass) -> spec, Duration.ofMinutes(10), 1000, clock::get);
+  }
+}
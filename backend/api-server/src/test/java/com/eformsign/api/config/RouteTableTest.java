@@ -0,0 +1,83 @@
+package com.eformsign.api.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RouteTableTest {
+
+  @Test
+  void classifiesHandlersFromAnnotations() throws Exception {
+    RouteTable table = table();
+
+    assertThat(table.kindOf(handler(new DocumentController(), "document"))).isEqualTo(RouteKind.UPSTREAM);
+    assertThat(table.kindOf(handler(new DocumentController(), "export"))).isEqualTo(RouteKind.EXPORT);
+    assertThat(table.kindOf(handler(new LeaveController(), "balances"))).isEqualTo(RouteKind.LOCAL);
+    assertThat(table.kindOf(handler(new LeaveController(), "sync"))).isEqualTo(RouteKind.UPSTREAM);
+  }
+
+  @Test
+  void classifiesRequestsByMostSpecificPattern() throws Exception {
+    RouteTable table = table();
+
+    assertThat(table.kindOf(new MockHttpServletRequest("GET", "/api/documents/d1"))).isEqualTo(RouteKind.UPSTREAM);
+    assertThat(table.kindOf(new MockHttpServletRequest("GET", "/api/documents/export"))).isEqualTo(RouteKind.EXPORT);
+    assertThat(table.kindOf(new MockHttpServletRequest("GET", "/api/leave/balances"))).isEqualTo(RouteKind.LOCAL);
+    assertThat(table.kindOf(new MockHttpServletRequest("POST", "/api/leave/balances"))).isEqualTo(RouteKind.UPSTREAM);
+    assertThat(table.kindOf(new MockHttpServletRequest("GET", "/api/unmapped"))).isEqualTo(RouteKind.LOCAL);
+  }
+
+  private static RouteTable table() throws Exception {
+    Map<RequestMappingInfo, HandlerMethod> handlerMethods = new HashMap<>();
+    handlerMethods.put(RequestMappingInfo.paths("/api/documents/{id}").methods(RequestMethod.GET).build(),
+        handler(new DocumentController(), "document"));
+    handlerMethods.put(RequestMappingInfo.paths("/api/documents/export").methods(RequestMethod.GET).build(),
+        handler(new DocumentController(), "export"));
+    handlerMethods.put(RequestMappingInfo.paths("/api/leave/balances").methods(RequestMethod.GET).build(),
+        handler(new LeaveController(), "balances"));
+    handlerMethods.put(RequestMappingInfo.paths("/api/leave/balances").methods(RequestMethod.POST).build(),
+        handler(new LeaveController(), "sync"));
+    RequestMappingHandlerMapping mapping = mock(RequestMappingHandlerMapping.class);
+    when(mapping.getHandlerMethods()).thenReturn(handlerMethods);
+    ApplicationContext context = mock(ApplicationContext.class);
+    when(context.getBeansOfType(RequestMappingHandlerMapping.class)).thenReturn(Map.of("mapping", mapping));
+
+    RouteTable table = new RouteTable(context);
+    table.afterSingletonsInstantiated();
+    return table;
+  }
+
+  private static HandlerMethod handler(Object controller, String name) throws Exception {
+    return new HandlerMethod(controller, controller.getClass().getDeclaredMethod(name));
+  }
+
+  @Route(RouteKind.UPSTREAM)
+  static class DocumentController {
+    public void document() {
+    }
+
+    @Route(RouteKind.EXPORT)
+    public void export() {
+    }
+  }
+
+  static class LeaveController {
+    public void balances() {
+    }
+
+    @Route(RouteKind.UPSTREAM)
+    public void sync() {
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.eformsign.api.config.auth;
+
+import com.eformsign.common.type.MemberRole;
+import com.eformsign.common.util.JwtKeySet;
+import com.eformsign.common.util.JwtProvider;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// AuthInterceptor.preHandle with an HS256 versus an ES256 access token; the difference is the signature
+// check. ./gradlew :api-server:benchmark
+@Tag("benchmark")
+class AuthInterceptorBenchmark {
+
+  private static final int ROUNDS = 3;
+  private static final int WARMUP = 5_000;
+  private static final int ITERATIONS = 20_000;
+  private static final String SECRET = "thisisthedefaultsecretkeyforeformsigndemoprojectwhichmustbeverylong";
+  private static final String PASSWORD = "benchmark";
+
+  @Test
+  void preHandle(@TempDir Path dir) throws Exception {
+    JwtProvider hs256 = provider(new JwtKeySet("HS256", "default", SECRET, "", "", "", "PKCS12"));
+    JwtProvider es256 = provider(new JwtKeySet("ES256", "default", "", "", keystore(dir).toString(), PASSWORD,
+        "PKCS12"));
+
+    double hmac = 0;
+    double ecdsa = 0;
+    // Alternating rounds so neither side is measured before the shared code paths are compiled
+    for (int round = 0; round < ROUNDS; round++) {
+      hmac = nanosPerCall(hs256);
+      ecdsa = nanosPerCall(es256);
+    }
+
+    System.out.printf("AuthInterceptor.preHandle: HS256 %.1f us/op, ES256 %.1f us/op%n", hmac / 1000, ecdsa / 1000);
+  }
+
+  private static JwtProvider provider(JwtKeySet keySet) {
+    return new JwtProvider(keySet, Duration.ofMinutes(15), Duration.ofDays(14));
+  }
+
+  private static double nanosPerCall(JwtProvider provider) throws Exception {
+    AuthInterceptor interceptor = new AuthInterceptor(provider);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/members/me");
+    request.addHeader("Authorization", "Bearer " + provider.createToken("u1", MemberRole.MEMBER, null));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    int allowed = 0;
+    for (int i = 0; i < WARMUP; i++) {
+      allowed += interceptor.preHandle(request, response, null) ? 1 : 0;
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      allowed += interceptor.preHandle(request, response, null) ? 1 : 0;
+    }
+    long elapsed = System.nanoTime() - start;
+    assertThat(allowed).isEqualTo(WARMUP + ITERATIONS);
+    return (double) elapsed / ITERATIONS;
+  }
+
+  // P-256 key pair under alias "default", made by the JDK's keytool
+  private static Path keystore(Path dir) throws Exception {
+    Path keystore = dir.resolve("jwt.p12");
+    Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+    Process process = new ProcessBuilder(keytool.toString(), "-genkeypair", "-alias", "default",
+        "-keyalg", "EC", "-groupname", "secp256r1", "-sigalg", "SHA256withECDSA", "-dname", "CN=benchmark",
+        "-validity", "1", "-storetype", "PKCS12", "-keystore", keystore.toString(),
+        "-storepass", PASSWORD, "-keypass", PASSWORD)
+        .inheritIO()
+        .start();
+    assertThat(process.waitFor(60, TimeUnit.SECONDS)).isTrue();
+    assertThat(process.exitValue()).isZero();
+    return keystore;
+  }
+}
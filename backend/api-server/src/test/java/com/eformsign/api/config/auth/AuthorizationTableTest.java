@@ -0,0 +1,81 @@
+package com.eformsign.api.config.auth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthorizationTableTest {
+
+  @Test
+  void readsMethodAndClassAnnotations() throws Exception {
+    AuthorizationTable table = tableFor(new OpenController(), new ExportController());
+
+    assertThat(table.requiredBits(handler(new OpenController(), "open"))).isZero();
+    assertThat(table.requiredBits(handler(new OpenController(), "members")))
+        .isEqualTo(Permission.MANAGE_MEMBERS.bit());
+    assertThat(table.requiredBits(handler(new ExportController(), "export")))
+        .isEqualTo(Permission.EXPORT_DOCUMENTS.bit());
+    // Method-level annotations replace class-level ones
+    assertThat(table.requiredBits(handler(new ExportController(), "administer")))
+        .isEqualTo(Permission.bits(Permission.ADMINISTER, Permission.SEND_BULK));
+  }
+
+  @Test
+  void unmappedHandlerFallsBackToReflection() throws Exception {
+    AuthorizationTable table = tableFor();
+
+    assertThat(table.requiredBits(handler(new ExportController(), "export")))
+        .isEqualTo(Permission.EXPORT_DOCUMENTS.bit());
+    assertThat(table.requiredBits(handler(new OpenController(), "open"))).isZero();
+  }
+
+  static AuthorizationTable tableFor(Object... controllers) throws Exception {
+    RequestMappingHandlerMapping mapping = mock(RequestMappingHandlerMapping.class);
+    Map<RequestMappingInfo, HandlerMethod> handlerMethods = new HashMap<>();
+    for (Object controller : controllers) {
+      for (var method : controller.getClass().getDeclaredMethods()) {
+        handlerMethods.put(RequestMappingInfo.paths("/" + method.getName()).build(),
+            new HandlerMethod(controller, method));
+      }
+    }
+    when(mapping.getHandlerMethods()).thenReturn(handlerMethods);
+    ApplicationContext context = mock(ApplicationContext.class);
+    when(context.getBeansOfType(RequestMappingHandlerMapping.class)).thenReturn(Map.of("mapping", mapping));
+
+    AuthorizationTable table = new AuthorizationTable(context);
+    table.afterSingletonsInstantiated();
+    return table;
+  }
+
+  static HandlerMethod handler(Object controller, String name) throws Exception {
+    return new HandlerMethod(controller, controller.getClass().getDeclaredMethod(name));
+  }
+
+  static class OpenController {
+    public void open() {
+    }
+
+    @RequiresPermission(Permission.MANAGE_MEMBERS)
+    public void members() {
+    }
+  }
+
+  @RequiresPermission(Permission.EXPORT_DOCUMENTS)
+  static class ExportController {
+    public void export() {
+    }
+
+    @RequiresPermission({Permission.ADMINISTER, Permission.SEND_BULK})
+    public void administer() {
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.eformsign.api.config.auth;
+
+import com.eformsign.common.type.MemberRole;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionTest {
+
+  @Test
+  void grantsPerRole() {
+    assertThat(Permission.grantedTo(MemberRole.MANAGER)).isEqualTo(Permission.ALL);
+    assertThat(Permission.grantedTo(MemberRole.COMPANY_MANAGER))
+        .isEqualTo(Permission.bits(Permission.MANAGE_MEMBERS, Permission.MANAGE_LEAVE));
+    assertThat(Permission.grantedTo(MemberRole.TEMPLATE_MANAGER)).isEqualTo(Permission.bits(Permission.SEND_BULK));
+    assertThat(Permission.grantedTo(MemberRole.DOCUMENT_MANAGER))
+        .isEqualTo(Permission.bits(Permission.SEND_BULK, Permission.EXPORT_DOCUMENTS));
+    assertThat(Permission.grantedTo(MemberRole.MEMBER)).isZero();
+    assertThat(Permission.grantedTo(null)).isZero();
+  }
+
+  @Test
+  void everyRoleHasAGrant() {
+    for (MemberRole role : MemberRole.values()) {
+      assertThat(Permission.grantedTo(role) & ~Permission.ALL).as(role.name()).isZero();
+    }
+  }
+
+  @Test
+  void principalNeedsEveryRequiredBit() {
+    AuthPrincipal documentManager = new AuthPrincipal("u1", MemberRole.DOCUMENT_MANAGER, null);
+
+    assertThat(documentManager.has(0)).isTrue();
+    assertThat(documentManager.has(Permission.EXPORT_DOCUMENTS.bit())).isTrue();
+    assertThat(documentManager.has(Permission.bits(Permission.SEND_BULK, Permission.EXPORT_DOCUMENTS))).isTrue();
+    assertThat(documentManager.has(Permission.bits(Permission.SEND_BULK, Permission.MANAGE_MEMBERS))).isFalse();
+    assertThat(documentManager.has(Permission.grantedTo(MemberRole.MANAGER))).isFalse();
+  }
+}
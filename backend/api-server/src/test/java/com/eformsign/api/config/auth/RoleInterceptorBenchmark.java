@@ -0,0 +1,59 @@
+package com.eformsign.api.config.auth;
+
+import com.eformsign.common.type.MemberRole;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static com.eformsign.api.config.auth.AuthorizationTableTest.handler;
+import static com.eformsign.api.config.auth.AuthorizationTableTest.tableFor;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// RoleInterceptor.preHandle on a protected route: table lookup versus the reflection it replaced
+// (an unmapped handler). ./gradlew :api-server:benchmark
+@Tag("benchmark")
+class RoleInterceptorBenchmark {
+
+  private static final int ROUNDS = 3;
+  private static final int WARMUP = 1_000_000;
+  private static final int ITERATIONS = 5_000_000;
+
+  @Test
+  void preHandle() throws Exception {
+    AuthorizationTableTest.ExportController controller = new AuthorizationTableTest.ExportController();
+    HandlerMethod handler = handler(controller, "export");
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setAttribute(AuthPrincipal.ATTRIBUTE, new AuthPrincipal("u1", MemberRole.DOCUMENT_MANAGER, null));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    RoleInterceptor withTable = new RoleInterceptor(tableFor(controller));
+    RoleInterceptor withReflection = new RoleInterceptor(tableFor());
+    double table = 0;
+    double reflection = 0;
+    // Alternating rounds so neither side is measured before the shared code paths are compiled
+    for (int round = 0; round < ROUNDS; round++) {
+      table = nanosPerCall(withTable, request, response, handler);
+      reflection = nanosPerCall(withReflection, request, response, handler);
+    }
+
+    System.out.printf("RoleInterceptor.preHandle: table %.1f ns/op, reflection %.1f ns/op%n", table, reflection);
+    assertThat(response.getStatus()).isEqualTo(200);
+  }
+
+  private static double nanosPerCall(RoleInterceptor interceptor, MockHttpServletRequest request,
+      MockHttpServletResponse response, HandlerMethod handler) throws Exception {
+    int allowed = 0;
+    for (int i = 0; i < WARMUP; i++) {
+      allowed += interceptor.preHandle(request, response, handler) ? 1 : 0;
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      allowed += interceptor.preHandle(request, response, handler) ? 1 : 0;
+    }
+    long elapsed = System.nanoTime() - start;
+    assertThat(allowed).isEqualTo(WARMUP + ITERATIONS);
+    return (double) elapsed / ITERATIONS;
+  }
+}
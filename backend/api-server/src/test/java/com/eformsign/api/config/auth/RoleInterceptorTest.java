@@ -0,0 +1,60 @@
+package com.eformsign.api.config.auth;
+
+import com.eformsign.common.type.MemberRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static com.eformsign.api.config.auth.AuthorizationTableTest.handler;
+import static com.eformsign.api.config.auth.AuthorizationTableTest.tableFor;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoleInterceptorTest {
+
+  private final AuthorizationTableTest.OpenController open = new AuthorizationTableTest.OpenController();
+  private final AuthorizationTableTest.ExportController export = new AuthorizationTableTest.ExportController();
+
+  @Test
+  void allowsWhenRoleHasEveryRequiredPermission() throws Exception {
+    RoleInterceptor interceptor = new RoleInterceptor(tableFor(open, export));
+
+    assertThat(preHandle(interceptor, MemberRole.DOCUMENT_MANAGER, handler(export, "export"))).isEqualTo(200);
+    assertThat(preHandle(interceptor, MemberRole.COMPANY_MANAGER, handler(open, "members"))).isEqualTo(200);
+    assertThat(preHandle(interceptor, MemberRole.MANAGER, handler(export, "administer"))).isEqualTo(200);
+    assertThat(preHandle(interceptor, MemberRole.MEMBER, handler(open, "open"))).isEqualTo(200);
+    assertThat(preHandle(interceptor, null, handler(open, "open"))).isEqualTo(200);
+  }
+
+  @Test
+  void forbidsMissingPermissionOrPrincipal() throws Exception {
+    RoleInterceptor interceptor = new RoleInterceptor(tableFor(open, export));
+
+    assertThat(preHandle(interceptor, MemberRole.TEMPLATE_MANAGER, handler(export, "export"))).isEqualTo(403);
+    assertThat(preHandle(interceptor, MemberRole.DOCUMENT_MANAGER, handler(open, "members"))).isEqualTo(403);
+    assertThat(preHandle(interceptor, MemberRole.DOCUMENT_MANAGER, handler(export, "administer"))).isEqualTo(403);
+    assertThat(preHandle(interceptor, MemberRole.MEMBER, handler(export, "export"))).isEqualTo(403);
+    assertThat(preHandle(interceptor, null, handler(open, "members"))).isEqualTo(403);
+  }
+
+  @Test
+  void ignoresNonControllerHandlers() throws Exception {
+    RoleInterceptor interceptor = new RoleInterceptor(tableFor());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, new Object())).isTrue();
+    assertThat(response.getStatus()).isEqualTo(200);
+  }
+
+  // Response status after preHandle: 200 when the request was let through
+  static int preHandle(RoleInterceptor interceptor, MemberRole role, HandlerMethod handler) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    if (role != null) {
+      request.setAttribute(AuthPrincipal.ATTRIBUTE, new AuthPrincipal("u1", role, null));
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    boolean proceed = interceptor.preHandle(request, response, handler);
+    assertThat(proceed).isEqualTo(response.getStatus() == 200);
+    return response.getStatus();
+  }
+}
@@ -0,0 +1,137 @@
+package com.eformsign.api.service;
+
+import com.eformsign.api.repository.BulkSendItemRepository;
+import com.eformsign.common.entity.BulkSendItem;
+import com.eformsign.common.entity.BulkSendJob;
+import com.eformsign.common.type.BulkSendItemStatus;
+import com.eformsign.common.type.BulkSendJobStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Item states: PENDING -> SENDING (claim) -> SENT | FAILED | UNKNOWN, or back to PENDING for a retry.
+// The job finishes once nothing is PENDING or SENDING. The worker's poll is off so only the test claims.
+@SpringBootTest(properties = {
+    "storage.shared-cache.poll-interval-ms=3600000",
+    "bulk-send.poll-interval-ms=3600000",
+    "eformsign.events.poll-interval-ms=3600000",
+    "eformsign.hedging.enabled=false"
+})
+class BulkSendServiceTest {
+
+  @Autowired
+  private BulkSendService bulkSendService;
+  @Autowired
+  private BulkSendItemRepository itemRepository;
+
+  @Test
+  void claimMovesDueItemsToSendingOnce() {
+    BulkSendJob job = submit(2);
+
+    List<BulkSendItem> claimed = claim(job);
+    assertThat(claimed).hasSize(2);
+    for (BulkSendItem item : items(job)) {
+      assertThat(item.getStatus()).isEqualTo(BulkSendItemStatus.SENDING);
+      assertThat(item.getAttempts()).isEqualTo(1);
+    }
+    assertThat(status(job)).isEqualTo(BulkSendJobStatus.RUNNING);
+
+    assertThat(claim(job)).as("claimed items are not handed out again").isEmpty();
+    settle(claimed);
+  }
+
+  @Test
+  void retriesAreClaimedOnlyOnceDue() {
+    BulkSendJob job = submit(1);
+    Long id = claim(job).get(0).getId();
+
+    bulkSendService.markRetry(id, "503", LocalDateTime.now().plusHours(1));
+    assertThat(item(id).getStatus()).isEqualTo(BulkSendItemStatus.PENDING);
+    assertThat(claim(job)).isEmpty();
+
+    bulkSendService.markRetry(id, "503", LocalDateTime.now().minusSeconds(1));
+    List<BulkSendItem> retried = claim(job);
+    assertThat(retried).extracting(BulkSendItem::getId).containsExactly(id);
+    assertThat(item(id).getAttempts()).isEqualTo(2);
+    assertThat(status(job)).isEqualTo(BulkSendJobStatus.RUNNING);
+    settle(retried);
+  }
+
+  @Test
+  void jobFinishesWhenTheLastItemSettles() {
+    BulkSendJob clean = submit(2);
+    List<BulkSendItem> cleanItems = claim(clean);
+    bulkSendService.markSent(cleanItems.get(0).getId(), "doc-1");
+    assertThat(status(clean)).isEqualTo(BulkSendJobStatus.RUNNING);
+    bulkSendService.markSent(cleanItems.get(1).getId(), "doc-2");
+    assertThat(status(clean)).isEqualTo(BulkSendJobStatus.COMPLETED);
+    assertThat(item(cleanItems.get(0).getId()).getDocumentId()).isEqualTo("doc-1");
+
+    BulkSendJob mixed = submit(3);
+    List<BulkSendItem> mixedItems = claim(mixed);
+    bulkSendService.markSent(mixedItems.get(0).getId(), "doc-3");
+    bulkSendService.markFailed(mixedItems.get(1).getId(), "Unknown template");
+    assertThat(status(mixed)).isEqualTo(BulkSendJobStatus.RUNNING);
+    bulkSendService.markUnknown(mixedItems.get(2).getId());
+    assertThat(status(mixed)).isEqualTo(BulkSendJobStatus.COMPLETED_WITH_ERRORS);
+    assertThat(bulkSendService.findJob(mixed.getId()).orElseThrow().getFinishedAt()).isNotNull();
+  }
+
+  // A restart cannot tell whether eformsign created the document for an item that was in flight
+  @Test
+  void interruptedItemsBecomeUnknownAndAreNeverResent() {
+    BulkSendJob job = submit(2);
+    List<BulkSendItem> claimed = claim(job);
+    bulkSendService.markSent(claimed.get(0).getId(), "doc-1");
+
+    assertThat(bulkSendService.recoverInterrupted()).isGreaterThanOrEqualTo(1);
+
+    BulkSendItem interrupted = item(claimed.get(1).getId());
+    assertThat(interrupted.getStatus()).isEqualTo(BulkSendItemStatus.UNKNOWN);
+    assertThat(interrupted.getError()).contains("check eformsign");
+    assertThat(status(job)).isEqualTo(BulkSendJobStatus.COMPLETED_WITH_ERRORS);
+    assertThat(claim(job)).isEmpty();
+  }
+
+  private BulkSendJob submit(int recipients) {
+    List<BulkSendService.Recipient> list = new ArrayList<>();
+    for (int i = 0; i < recipients; i++) {
+      list.add(new BulkSendService.Recipient("r" + i + "@example.com", "Recipient " + i, null));
+    }
+    return bulkSendService.submit("bulk-" + UUID.randomUUID(), null, null, "template-1", "Contract", list);
+  }
+
+  // Other tests' leftovers may be claimed along the way; only this job's items are returned
+  private List<BulkSendItem> claim(BulkSendJob job) {
+    List<BulkSendItem> claimed = new ArrayList<>();
+    for (BulkSendItem item : bulkSendService.claim(100)) {
+      if (item.getJobId().equals(job.getId())) {
+        claimed.add(item);
+      }
+    }
+    return claimed;
+  }
+
+  private void settle(List<BulkSendItem> claimed) {
+    claimed.forEach(item -> bulkSendService.markSent(item.getId(), "doc-" + item.getId()));
+  }
+
+  private List<BulkSendItem> items(BulkSendJob job) {
+    return bulkSendService.getItems(job.getMemberId(), job.getId(), null, 1, 100);
+  }
+
+  private BulkSendItem item(Long id) {
+    return itemRepository.findById(id).orElseThrow();
+  }
+
+  private BulkSendJobStatus status(BulkSendJob job) {
+    return bulkSendService.findJob(job.getId()).orElseThrow().getStatus();
+  }
+}
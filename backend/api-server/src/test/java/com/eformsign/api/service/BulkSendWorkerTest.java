@@ -0,0 +1,143 @@
+package com.eformsign.api.service;
+
+import com.eformsign.common.entity.BulkSendItem;
+import com.eformsign.common.entity.BulkSendJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// How a send outcome maps to the item's next state: only failures where eformsign certainly created nothing
+// are retried; anything ambiguous ends as UNKNOWN so it is never sent twice
+class BulkSendWorkerTest {
+
+  private static final int MAX_ATTEMPTS = 3;
+  private static final long VERIFY_MILLIS = 5_000;
+
+  private final BulkSendService bulkSendService = mock(BulkSendService.class);
+  private final EformsignService eformsignService = mock(EformsignService.class);
+  private final EformsignTenantRegistry tenants = mock(EformsignTenantRegistry.class);
+  private BulkSendWorker worker;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    BulkSendJob job = BulkSendJob.builder().memberId("kim").templateId("template-1").documentName("Contract")
+        .totalCount(1).build();
+    when(bulkSendService.findJob(any(Long.class))).thenReturn(Optional.of(job));
+    when(bulkSendService.readFields(any())).thenReturn(Map.of());
+    when(tenants.callAs(any(), any())).thenAnswer(call -> ((Supplier<Object>) call.getArgument(1)).get());
+    worker = new BulkSendWorker(bulkSendService, eformsignService, tenants, 2, 1000, MAX_ATTEMPTS,
+        Duration.ofSeconds(10));
+    worker.start();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    worker.shutdown();
+  }
+
+  @Test
+  void marksSentWithTheCreatedDocument() {
+    upstreamReturns(Map.of("document", Map.of("id", "doc-1")));
+
+    dispatch(item(1L, 1));
+
+    verify(bulkSendService, timeout(VERIFY_MILLIS)).markSent(1L, "doc-1");
+  }
+
+  @Test
+  void retriesWhenEformsignCertainlyCreatedNothing() {
+    upstreamFails(WebClientResponseException.create(503, "Service Unavailable", HttpHeaders.EMPTY, null, null));
+    dispatch(item(1L, 1));
+    verify(bulkSendService, timeout(VERIFY_MILLIS)).markRetry(eq(1L), anyString(), any(LocalDateTime.class));
+
+    upstreamFails(new WebClientRequestException(new ConnectException("Connection refused"), HttpMethod.POST,
+        URI.create("http://eformsign"), HttpHeaders.EMPTY));
+    dispatch(item(2L, 2));
+    verify(bulkSendService, timeout(VERIFY_MILLIS)).markRetry(eq(2L), anyString(), any(LocalDateTime.class));
+  }
+
+  @Test
+  void givesUpAfterMaxAttempts() {
+    upstreamFails(WebClientResponseException.create(429, "Too Many Requests", HttpHeaders.EMPTY, null, null));
+
+    dispatch(item(1L, MAX_ATTEMPTS));
+
+    verify(bulkSendService, timeout(VERIFY_MILLIS)).markFailed(eq(1L), startsWith("Gave up after 3 attempts"));
+    verify(bulkSendService, never()).markRetry(any(), any(), any());
+  }
+
+  @Test
+  void failsWhenEformsignRejectsTheRequest() {
+    upstreamFails(WebClientResponseException.create(400, "Bad Request", HttpHeaders.EMPTY, null, null));
+
+    dispatch(item(1L, 1));
+
+    verify(bulkSendService, timeout(VERIFY_MILLIS)).markFailed(eq(1L), anyString());
+    verify(bulkSendService, never()).markRetry(any(), any(), any());
+  }
+
+  // The request may have reached eformsign: a 500 or a read timeout could follow a created document
+  @Test
+  void endsUnknownWhenTheOutcomeIsAmbiguous() {
+    upstreamFails(WebClientResponseException.create(500, "Internal Server Error", HttpHeaders.EMPTY, null, null));
+    dispatch(item(1L, 1));
+    verify(bulkSendService, timeout(VERIFY_MILLIS)).markUnknown(1L);
+
+    upstreamFails(new WebClientRequestException(new SocketTimeoutException("Read timed out"), HttpMethod.POST,
+        URI.create("http://eformsign"), HttpHeaders.EMPTY));
+    dispatch(item(2L, 1));
+    verify(bulkSendService, timeout(VERIFY_MILLIS)).markUnknown(2L);
+    verify(bulkSendService, never()).markRetry(any(), any(), any());
+  }
+
+  private void dispatch(BulkSendItem item) {
+    when(bulkSendService.claim(anyInt())).thenReturn(List.of(item)).thenReturn(List.of());
+    worker.dispatch();
+  }
+
+  private void upstreamReturns(Map<String, Object> result) {
+    doReturn(result).when(eformsignService).createDocument(any(), any(), any(), any(), any());
+  }
+
+  private void upstreamFails(RuntimeException e) {
+    doThrow(e).when(eformsignService).createDocument(any(), any(), any(), any(), any());
+  }
+
+  // As claim() hands it out: SENDING, attempts already counted
+  private static BulkSendItem item(Long id, int attempts) {
+    BulkSendItem item = BulkSendItem.builder().jobId(7L).idempotencyKey("bulk-7-" + id).recipientId("lee@example.com")
+        .build();
+    ReflectionTestUtils.setField(item, "id", id);
+    ReflectionTestUtils.setField(item, "attempts", attempts);
+    return item;
+  }
+}
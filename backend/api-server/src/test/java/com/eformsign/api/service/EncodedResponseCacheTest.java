@@ -0,0 +1,129 @@
+package com.eformsign.api.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Paged listings are encoded per listing entry (the caller) and page: repeating a page is a hit, another page
+// of the same entry is its own encoded entry.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "storage.shared-cache.poll-interval-ms=3600000",
+    "bulk-send.poll-interval-ms=3600000",
+    "eformsign.events.poll-interval-ms=3600000",
+    "eformsign.hedging.enabled=false"
+})
+class EncodedResponseCacheTest {
+
+  private static final HttpServer UPSTREAM = stubUpstream();
+
+  @LocalServerPort
+  private int port;
+  @Autowired
+  private MemberService memberService;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private final HttpClient http = HttpClient.newHttpClient();
+
+  @DynamicPropertySource
+  static void upstream(DynamicPropertyRegistry registry) {
+    registry.add("eformsign.api.url", () -> "http://127.0.0.1:" + UPSTREAM.getAddress().getPort());
+  }
+
+  @AfterAll
+  static void stopUpstream() {
+    UPSTREAM.stop(0);
+  }
+
+  @Test
+  void secondMembersRequestIsAHit() throws Exception {
+    memberService.createMember("encoded-cache", "password", "Encoded Cache", null);
+    String token = login("encoded-cache");
+
+    double hits = count("hit");
+    double misses = count("miss");
+    HttpResponse<String> first = get("/api/v1/eformsign/company/members?page=1&limit=20", token);
+    HttpResponse<String> second = get("/api/v1/eformsign/company/members?page=1&limit=20", token);
+
+    assertThat(first.statusCode()).isEqualTo(200);
+    assertThat(second.body()).isEqualTo(first.body()).contains("m1");
+    assertThat(count("miss") - misses).isEqualTo(1);
+    assertThat(count("hit") - hits).isEqualTo(1);
+
+    HttpResponse<String> otherPage = get("/api/v1/eformsign/company/members?page=2&limit=1", token);
+    assertThat(otherPage.body()).contains("m2").doesNotContain("\"m1\"");
+    assertThat(count("miss") - misses).as("another page is its own entry").isEqualTo(2);
+    assertThat(count("hit") - hits).isEqualTo(1);
+  }
+
+  private double count(String result) {
+    return meterRegistry.counter("eformsign.encoded-responses", "result", result).count();
+  }
+
+  private HttpResponse<String> get(String path, String token) throws Exception {
+    return http.send(HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token).build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+
+  private String login(String loginId) throws Exception {
+    String body = "{\"loginId\":\"" + loginId + "\",\"password\":\"password\"}";
+    HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/api/v1/auth/login"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    Matcher token = Pattern.compile("\"accessToken\":\"([^\"]+)\"").matcher(response.body());
+    assertThat(token.find()).as("login response %s", response.body()).isTrue();
+    return token.group(1);
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://127.0.0.1:" + port + path);
+  }
+
+  private static HttpServer stubUpstream() {
+    try {
+      HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+      server.setExecutor(Executors.newCachedThreadPool());
+      server.createContext("/", exchange -> {
+        String path = exchange.getRequestURI().getPath();
+        String body;
+        if (path.endsWith("/access_token")) {
+          body = "{\"oauth_token\":{\"access_token\":\"t\",\"refresh_token\":\"r\",\"expires_in\":3600}}";
+        } else if (path.endsWith("/members")) {
+          body = "{\"members\":[{\"id\":\"m1\",\"name\":\"Kim\"},{\"id\":\"m2\",\"name\":\"Lee\"}]}";
+        } else {
+          body = "{}";
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(bytes);
+        }
+      });
+      server.start();
+      return server;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
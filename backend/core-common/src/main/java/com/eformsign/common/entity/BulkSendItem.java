@@ -0,0 +1,99 @@
+package com.eformsign.common.entity;
+
+import com.eformsign.common.type.BulkSendItemStatus;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One recipient of a BulkSendJob. The table doubles as the work queue, so queued work survives restarts.
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "bulk_send_items", indexes = {
+    @Index(name = "idx_bulk_send_items_status", columnList = "status, nextAttemptAt"),
+    @Index(name = "idx_bulk_send_items_job", columnList = "jobId")
+})
+public class BulkSendItem {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private Long jobId;
+
+  // job id + position; sent upstream as Idempotency-Key and unique here
+  @Column(nullable = false, unique = true)
+  private String idempotencyKey;
+
+  @Column(nullable = false)
+  private String recipientId;
+
+  private String recipientName;
+
+  // Field prefills as JSON ({"fieldId": "value"})
+  @Column(columnDefinition = "TEXT")
+  private String fields;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private BulkSendItemStatus status;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  private LocalDateTime nextAttemptAt;
+
+  private String documentId;
+
+  @Column(length = 1000)
+  private String error;
+
+  private LocalDateTime updatedAt;
+
+  @Builder
+  public BulkSendItem(Long jobId, String idempotencyKey, String recipientId, String recipientName, String fields) {
+    this.jobId = jobId;
+    this.idempotencyKey = idempotencyKey;
+    this.recipientId = recipientId;
+    this.recipientName = recipientName;
+    this.fields = fields;
+    this.status = BulkSendItemStatus.PENDING;
+    this.nextAttemptAt = LocalDateTime.now();
+    this.updatedAt = LocalDateTime.now();
+  }
+
+  public void markSent(String documentId) {
+    status = BulkSendItemStatus.SENT;
+    this.documentId = documentId;
+    error = null;
+    updatedAt = LocalDateTime.now();
+  }
+
+  public void markRetry(String error, LocalDateTime nextAttemptAt) {
+    status = BulkSendItemStatus.PENDING;
+    this.error = truncate(error);
+    this.nextAttemptAt = nextAttemptAt;
+    updatedAt = LocalDateTime.now();
+  }
+
+  public void markFailed(String error) {
+    status = BulkSendItemStatus.FAILED;
+    this.error = truncate(error);
+    updatedAt = LocalDateTime.now();
+  }
+
+  public void markUnknown() {
+    status = BulkSendItemStatus.UNKNOWN;
+    error = "Interrupted while sending; check eformsign before resending";
+    updatedAt = LocalDateTime.now();
+  }
+
+  private static String truncate(String message) {
+    return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+  }
+}
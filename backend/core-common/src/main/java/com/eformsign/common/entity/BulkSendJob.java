@@ -0,0 +1,78 @@
+package com.eformsign.common.entity;
+
+import com.eformsign.common.type.BulkSendJobStatus;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// One mass-send request: a template sent to many recipients. Items carry the per-recipient state.
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "bulk_send_jobs",
+    uniqueConstraints = @UniqueConstraint(columnNames = { "memberId", "idempotencyKey" }))
+public class BulkSendJob {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  // eformsign member the documents are created as
+  @Column(nullable = false)
+  private String memberId;
+
+  // Company of the submitting member, so the worker sends under that company's credentials
+  private String companyId;
+
+  // Client-supplied; a resubmitted request with the same key returns the existing job
+  private String idempotencyKey;
+
+  @Column(nullable = false)
+  private String templateId;
+
+  @Column(nullable = false)
+  private String documentName;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private BulkSendJobStatus status;
+
+  @Column(nullable = false)
+  private int totalCount;
+
+  @CreatedDate
+  @Column(updatable = false)
+  private LocalDateTime createdAt;
+
+  private LocalDateTime finishedAt;
+
+  @Builder
+  public BulkSendJob(String memberId, String companyId, String idempotencyKey, String templateId, String documentName,
+      int totalCount) {
+    this.memberId = memberId;
+    this.companyId = companyId;
+    this.idempotencyKey = idempotencyKey;
+    this.templateId = templateId;
+    this.documentName = documentName;
+    this.totalCount = totalCount;
+    this.status = BulkSendJobStatus.QUEUED;
+  }
+
+  public void markRunning() {
+    if (status == BulkSendJobStatus.QUEUED) {
+      status = BulkSendJobStatus.RUNNING;
+    }
+  }
+
+  public void markFinished(boolean withErrors) {
+    status = withErrors ? BulkSendJobStatus.COMPLETED_WITH_ERRORS : BulkSendJobStatus.COMPLETED;
+    finishedAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,49 @@
+package com.eformsign.common.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// API credentials of one eformsign customer company. The company in application.yml needs no row.
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "eformsign_companies")
+public class EformsignCompany {
+
+  // eformsign company_id
+  @Id
+  private String companyId;
+
+  @Column(nullable = false)
+  private String name;
+
+  @Column(nullable = false)
+  private String apiKey;
+
+  @Column(nullable = false)
+  private String secretKey;
+
+  // Regional endpoint; null uses eformsign.api.url
+  private String apiUrl;
+
+  @CreatedDate
+  @Column(updatable = false)
+  private LocalDateTime createdAt;
+
+  @Builder
+  public EformsignCompany(String companyId, String name, String apiKey, String secretKey, String apiUrl) {
+    this.companyId = companyId;
+    this.name = name;
+    this.apiKey = apiKey;
+    this.secretKey = secretKey;
+    this.apiUrl = apiUrl;
+  }
+}
@@ -25,6 +25,7 @@ public class Member {
   @Column(unique = true, nullable = false)
   private String loginId;
 
+  // BCrypt hash, never the raw password
   @Column(nullable = false)
   private String password;
 
@@ -35,15 +36,23 @@ public class Member {
   @Column(nullable = false)
   private MemberRole role;
 
+  // eformsign company the member belongs to; null is the company configured in application.yml
+  private String companyId;
+
   @CreatedDate
   @Column(updatable = false)
   private LocalDateTime createdAt;
 
   @Builder
-  public Member(String loginId, String password, String name, MemberRole role) {
+  public Member(String loginId, String password, String name, MemberRole role, String companyId) {
     this.loginId = loginId;
     this.password = password;
     this.name = name;
     this.role = role;
+    this.companyId = companyId;
+  }
+
+  public void changeRole(MemberRole role) {
+    this.role = role;
   }
 }
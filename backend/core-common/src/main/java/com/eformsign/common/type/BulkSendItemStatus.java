@@ -0,0 +1,10 @@
+package com.eformsign.common.type;
+
+public enum BulkSendItemStatus {
+  PENDING,
+  SENDING,
+  SENT,
+  FAILED,
+  // Was in flight when the server stopped; eformsign may or may not have created the document
+  UNKNOWN
+}
@@ -0,0 +1,8 @@
+package com.eformsign.common.type;
+
+public enum BulkSendJobStatus {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  COMPLETED_WITH_ERRORS
+}
@@ -0,0 +1,171 @@
+package com.eformsign.common.util;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Signing key plus every key accepted for verification, indexed by "kid".
+// Keys are parsed once and swapped atomically on keystore reload, so verification is a map lookup.
+//
+// HS256: jwt.secret (Base64) signs under jwt.kid; jwt.previous-secrets ("kid=base64,...") still verify.
+// ES256: every alias in jwt.keystore.path verifies; the jwt.kid alias signs if it holds a private key.
+//        Verify-only replicas ship a keystore with certificates only.
+@Slf4j
+@Component
+public class JwtKeySet {
+
+  private final SignatureAlgorithm algorithm;
+  private final String activeKid;
+  private final String secret;
+  private final String previousSecrets;
+  private final String keystorePath;
+  private final String keystorePassword;
+  private final String keystoreType;
+
+  private volatile Snapshot snapshot;
+  private volatile long keystoreModified;
+
+  public JwtKeySet(
+      @Value("${jwt.algorithm:HS256}") String algorithm,
+      @Value("${jwt.kid:default}") String activeKid,
+      @Value("${jwt.secret:thisisthedefaultsecretkeyforeformsigndemoprojectwhichmustbeverylong}") String secret,
+      @Value("${jwt.previous-secrets:}") String previousSecrets,
+      @Value("${jwt.keystore.path:}") String keystorePath,
+      @Value("${jwt.keystore.password:}") String keystorePassword,
+      @Value("${jwt.keystore.type:PKCS12}") String keystoreType) {
+    this.algorithm = SignatureAlgorithm.forName(algorithm);
+    if (this.algorithm != SignatureAlgorithm.HS256 && this.algorithm != SignatureAlgorithm.ES256) {
+      throw new IllegalStateException("Unsupported jwt.algorithm: " + algorithm + " (HS256 or ES256)");
+    }
+    this.activeKid = activeKid;
+    this.secret = secret;
+    this.previousSecrets = previousSecrets;
+    this.keystorePath = keystorePath;
+    this.keystorePassword = keystorePassword;
+    this.keystoreType = keystoreType;
+    this.snapshot = load();
+  }
+
+  public SignatureAlgorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  public String getActiveKid() {
+    return activeKid;
+  }
+
+  public Key getSigningKey() {
+    Key key = snapshot.signingKey;
+    if (key == null) {
+      throw new IllegalStateException("No signing key for kid '" + activeKid + "' (verify-only node)");
+    }
+    return key;
+  }
+
+  // Tokens without a kid predate rotation and were signed with the active key
+  public Key getVerificationKey(String kid) {
+    return snapshot.verificationKeys.get(kid != null ? kid : activeKid);
+  }
+
+  // Picks up keys added to or removed from the keystore without a restart
+  @Scheduled(fixedDelayString = "${jwt.keystore.reload-interval-ms:60000}")
+  public void reloadIfChanged() {
+    if (algorithm != SignatureAlgorithm.ES256 || keystorePath.isEmpty()) {
+      return;
+    }
+    try {
+      long modified = Files.getLastModifiedTime(Path.of(keystorePath)).toMillis();
+      if (modified != keystoreModified) {
+        snapshot = load();
+        log.info("Reloaded JWT keystore: {} verification keys", snapshot.verificationKeys.size());
+      }
+    } catch (IOException | IllegalStateException e) {
+      log.error("JWT keystore reload failed; keeping previous keys", e);
+    }
+  }
+
+  private Snapshot load() {
+    return algorithm == SignatureAlgorithm.HS256 ? loadSecrets() : loadKeystore();
+  }
+
+  private Snapshot loadSecrets() {
+    if (secret.isBlank()) {
+      throw new IllegalStateException("jwt.secret (JWT_SECRET) is required for HS256");
+    }
+    Map<String, Key> keys = new HashMap<>();
+    Key signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    keys.put(activeKid, signingKey);
+
+    for (String entry : previousSecrets.split(",")) {
+      int sep = entry.indexOf('=');
+      if (sep > 0) {
+        keys.put(entry.substring(0, sep).trim(), Keys.hmacShaKeyFor(Decoders.BASE64.decode(entry.substring(sep + 1).trim())));
+      }
+    }
+    return new Snapshot(signingKey, keys);
+  }
+
+  private Snapshot loadKeystore() {
+    if (keystorePath.isEmpty()) {
+      throw new IllegalStateException("jwt.keystore.path is required for ES256");
+    }
+    Path path = Path.of(keystorePath);
+    char[] password = keystorePassword.toCharArray();
+    try (InputStream in = Files.newInputStream(path)) {
+      long modified = Files.getLastModifiedTime(path).toMillis();
+      KeyStore keyStore = KeyStore.getInstance(keystoreType);
+      keyStore.load(in, password);
+
+      Map<String, Key> keys = new HashMap<>();
+      for (String alias : Collections.list(keyStore.aliases())) {
+        Certificate certificate = keyStore.getCertificate(alias);
+        if (certificate != null) {
+          keys.put(alias, certificate.getPublicKey());
+        }
+      }
+
+      Key signingKey = null;
+      if (keyStore.isKeyEntry(activeKid)) {
+        Key key = keyStore.getKey(activeKid, password);
+        if (key instanceof PrivateKey) {
+          signingKey = key;
+        }
+      }
+      if (keys.isEmpty()) {
+        throw new IllegalStateException("No certificates in JWT keystore " + keystorePath);
+      }
+      // Only now: a keystore caught mid-write keeps being retried until it loads
+      keystoreModified = modified;
+      return new Snapshot(signingKey, keys);
+    } catch (IOException | GeneralSecurityException e) {
+      throw new IllegalStateException("Failed to load JWT keystore " + keystorePath, e);
+    }
+  }
+
+  private static final class Snapshot {
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+
+    private Snapshot(Key signingKey, Map<String, Key> verificationKeys) {
+      this.signingKey = signingKey;
+      this.verificationKeys = Map.copyOf(verificationKeys);
+    }
+  }
+}
@@ -2,61 +2,140 @@ package com.eformsign.common.util;
 
 import com.eformsign.common.type.MemberRole;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtProvider {
 
-  private final Key key;
+  public static final String TYPE_ACCESS = "access";
+  public static final String TYPE_REFRESH = "refresh";
 
-  public JwtProvider(@Value("thisisthedefaultsecretkeyforeformsigndemoprojectwhichmustbeverylong") String secretKey) {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    this.key = Keys.hmacShaKeyFor(keyBytes);
+  private static final String CLAIM_ROLE = "role";
+  private static final String CLAIM_TYPE = "typ";
+  private static final String CLAIM_FAMILY = "fam";
+  private static final String CLAIM_COMPANY = "cid";
+
+  private final JwtKeySet keySet;
+  // Thread-safe; building a parser per call was the most expensive part of verification.
+  // The resolver only does a kid -> pre-parsed key lookup.
+  private final JwtParser parser;
+  private final long accessTokenTtlMillis;
+  private final long refreshTokenTtlMillis;
+
+  public JwtProvider(JwtKeySet keySet,
+      @Value("${jwt.access-token-ttl:15m}") Duration accessTokenTtl,
+      @Value("${jwt.refresh-token-ttl:14d}") Duration refreshTokenTtl) {
+    this.keySet = keySet;
+    this.parser = Jwts.parserBuilder()
+        .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+          // jjwt 0.11 declares the raw JwsHeader here; JwsHeader<?> would not override it
+          @Override
+          @SuppressWarnings("rawtypes")
+          public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            Key key = keySet.getVerificationKey(header.getKeyId());
+            if (key == null) {
+              throw new SignatureException("Unknown key id: " + header.getKeyId());
+            }
+            return key;
+          }
+        })
+        .build();
+    this.accessTokenTtlMillis = accessTokenTtl.toMillis();
+    this.refreshTokenTtlMillis = refreshTokenTtl.toMillis();
   }
 
-  public String createToken(String subject, MemberRole role) {
+  // Short-lived access token. companyId null means the default eformsign company.
+  public String createToken(String subject, MemberRole role, String companyId) {
     Date now = new Date();
-    Date validity = new Date(now.getTime() + 3600000); // 1 hour
+    Date validity = new Date(now.getTime() + accessTokenTtlMillis);
 
     return Jwts.builder()
+        .setHeaderParam(JwsHeader.KEY_ID, keySet.getActiveKid())
         .setSubject(subject)
-        .claim("role", role.name())
+        .claim(CLAIM_ROLE, role.name())
+        .claim(CLAIM_TYPE, TYPE_ACCESS)
+        .claim(CLAIM_COMPANY, companyId)
         .setIssuedAt(now)
         .setExpiration(validity)
-        .signWith(key, SignatureAlgorithm.HS256)
+        .signWith(keySet.getSigningKey(), keySet.getAlgorithm())
         .compact();
   }
 
-  public boolean validateToken(String token) {
+  // Long-lived, single-use refresh token. The family id is shared by every token rotated
+  // from the same login so a replayed token can revoke the whole chain.
+  public String createRefreshToken(String subject, MemberRole role, String companyId, String family) {
+    Date now = new Date();
+    Date validity = new Date(now.getTime() + refreshTokenTtlMillis);
+
+    return Jwts.builder()
+        .setHeaderParam(JwsHeader.KEY_ID, keySet.getActiveKid())
+        .setId(UUID.randomUUID().toString())
+        .setSubject(subject)
+        .claim(CLAIM_ROLE, role.name())
+        .claim(CLAIM_TYPE, TYPE_REFRESH)
+        .claim(CLAIM_COMPANY, companyId)
+        .claim(CLAIM_FAMILY, family != null ? family : UUID.randomUUID().toString())
+        .setIssuedAt(now)
+        .setExpiration(validity)
+        .signWith(keySet.getSigningKey(), keySet.getAlgorithm())
+        .compact();
+  }
+
+  public long getRefreshTokenTtlMillis() {
+    return refreshTokenTtlMillis;
+  }
+
+  // Verifies signature and expiry once; returns null for any invalid token
+  public Claims parseClaims(String token) {
     try {
-      Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-      return true;
+      return parser.parseClaimsJws(token).getBody();
     } catch (JwtException | IllegalArgumentException e) {
-      return false;
+      return null;
     }
   }
 
+  public boolean validateToken(String token) {
+    return parseClaims(token) != null;
+  }
+
   public String getSubject(String token) {
-    return Jwts.parserBuilder().setSigningKey(key).build()
-        .parseClaimsJws(token)
+    return parser.parseClaimsJws(token)
         .getBody()
         .getSubject();
   }
 
   public MemberRole getRole(String token) {
-    String roleStr = Jwts.parserBuilder().setSigningKey(key).build()
-        .parseClaimsJws(token)
-        .getBody()
-        .get("role", String.class);
-    return MemberRole.valueOf(roleStr);
+    return getRole(parser.parseClaimsJws(token).getBody());
+  }
+
+  public MemberRole getRole(Claims claims) {
+    return MemberRole.valueOf(claims.get(CLAIM_ROLE, String.class));
+  }
+
+  // Tokens issued before refresh support carry no type and are treated as access tokens
+  public String getType(Claims claims) {
+    String type = claims.get(CLAIM_TYPE, String.class);
+    return type != null ? type : TYPE_ACCESS;
+  }
+
+  public String getFamily(Claims claims) {
+    return claims.get(CLAIM_FAMILY, String.class);
+  }
+
+  // Absent for the default company and for tokens issued before multi-company support
+  public String getCompanyId(Claims claims) {
+    return claims.get(CLAIM_COMPANY, String.class);
   }
 }
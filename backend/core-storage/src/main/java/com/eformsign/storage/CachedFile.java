@@ -0,0 +1,18 @@
+package com.eformsign.storage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.file.Path;
+
+// A cache key resolved to its content-addressed blob on disk
+@Getter
+@RequiredArgsConstructor
+public class CachedFile {
+  private final String key;
+  private final String hash;
+  private final long size;
+  private final String contentType;
+  private final String fileName;
+  private final Path path;
+}
@@ -0,0 +1,348 @@
+package com.eformsign.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Content-addressed local file cache, bounded by total size with LRU eviction.
+//
+//   <dir>/blobs/ab/<sha256>   file contents, stored once however many keys point at them
+//   <dir>/keys/<sha256(key)>  key -> blob hash plus content type and file name
+//   <dir>/tmp/                in-flight writes, moved into blobs/ on commit, and pins of blobs being sent
+//
+// The index lives in memory and is rebuilt from disk at startup (blob mtime = last access),
+// so cached files survive restarts. Files are only ever read through FileChannel.
+//
+// A response serves a pin rather than the blob: a hard link made under the cache lock, so eviction can
+// drop the blob while it is being sent without taking the contents from under the response. The link
+// count is the reference count; the contents go once the last pin is released and the last reader that
+// opened one has closed it.
+@Slf4j
+@Component
+public class FileCache {
+
+  private final Path blobDir;
+  private final Path keyDir;
+  private final Path tmpDir;
+  private final long maxBytes;
+  private final long pinTtlMillis;
+
+  // hash -> size, in access order (eldest first)
+  private final LinkedHashMap<String, Long> blobs = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, CachedFile> keys = new HashMap<>();
+  private long totalBytes;
+
+  public FileCache(
+      @Value("${storage.cache.dir:${java.io.tmpdir}/eformsign-file-cache}") String dir,
+      @Value("${storage.cache.max-bytes:1073741824}") long maxBytes,
+      @Value("${storage.cache.pin-ttl-ms:60000}") long pinTtlMillis) throws IOException {
+    Path root = Path.of(dir);
+    this.blobDir = Files.createDirectories(root.resolve("blobs"));
+    this.keyDir = Files.createDirectories(root.resolve("keys"));
+    this.tmpDir = Files.createDirectories(root.resolve("tmp"));
+    this.maxBytes = maxBytes;
+    this.pinTtlMillis = pinTtlMillis;
+    load();
+  }
+
+  public Optional<CachedFile> get(String key) {
+    CachedFile file;
+    synchronized (this) {
+      file = keys.get(key);
+      if (file == null || blobs.get(file.getHash()) == null) {
+        return Optional.empty();
+      }
+    }
+    try {
+      // Persists the LRU position across restarts
+      Files.setLastModifiedTime(file.getPath(), FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      log.debug("Could not touch cached blob {}", file.getHash());
+    }
+    return Optional.of(file);
+  }
+
+  public Writer writer(String key, String contentType, String fileName) throws IOException {
+    return new Writer(key, contentType, fileName, Files.createTempFile(tmpDir, "write-", ".part"));
+  }
+
+  // Empty when the blob was evicted since the lookup. Release the pin once the response is done with it;
+  // pins handed to something that opens them later (Tomcat sendfile) are left to purgePins().
+  public synchronized Optional<Path> pin(CachedFile file) throws IOException {
+    if (!blobs.containsKey(file.getHash())) {
+      return Optional.empty();
+    }
+    Path pin = tmpDir.resolve("pin-" + System.currentTimeMillis() + "-" + UUID.randomUUID());
+    return Optional.of(Files.createLink(pin, file.getPath()));
+  }
+
+  public void release(Path pin) {
+    deleteQuietly(pin);
+  }
+
+  // An expired pin has long been opened by its reader, which keeps the contents until it closes the file.
+  // The age is in the name: a link shares the blob's mtime, which every lookup touches.
+  @Scheduled(fixedDelay = 60_000)
+  public void purgePins() {
+    long cutoff = System.currentTimeMillis() - pinTtlMillis;
+    try (Stream<Path> files = Files.list(tmpDir)) {
+      files.filter(path -> pinnedAt(path.getFileName().toString()) < cutoff).forEach(FileCache::deleteQuietly);
+    } catch (IOException e) {
+      log.warn("Could not purge cache pins: {}", e.getMessage());
+    }
+  }
+
+  // Kernel-side copy where the target allows it (sockets, files); no heap buffer in between
+  public long transferTo(Path pin, WritableByteChannel target) throws IOException {
+    try (FileChannel channel = FileChannel.open(pin, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long position = 0;
+      while (position < size) {
+        position += channel.transferTo(position, size - position, target);
+      }
+      return position;
+    }
+  }
+
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  private synchronized CachedFile commit(String key, String hash, long size, String contentType, String fileName,
+      Path tempFile) throws IOException {
+    Path blob = blobPath(hash);
+    if (blobs.containsKey(hash) && Files.exists(blob)) {
+      Files.delete(tempFile); // Same content already cached under another key
+      blobs.get(hash); // Counts as an access for LRU
+    } else {
+      Files.createDirectories(blob.getParent());
+      Files.move(tempFile, blob, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      blobs.put(hash, size);
+      totalBytes += size;
+    }
+
+    CachedFile file = new CachedFile(key, hash, size, contentType, fileName, blob);
+    keys.put(key, file);
+    writeKeyFile(file);
+    evict(hash);
+    return file;
+  }
+
+  private void evict(String keep) {
+    Iterator<Map.Entry<String, Long>> eldest = blobs.entrySet().iterator();
+    while (totalBytes > maxBytes && eldest.hasNext()) {
+      Map.Entry<String, Long> entry = eldest.next();
+      String hash = entry.getKey();
+      if (hash.equals(keep)) {
+        continue;
+      }
+      eldest.remove();
+      totalBytes -= entry.getValue();
+      // Readers that already opened the blob keep their file handle; only new lookups miss
+      keys.values().removeIf(file -> {
+        if (file.getHash().equals(hash)) {
+          deleteQuietly(keyPath(file.getKey()));
+          return true;
+        }
+        return false;
+      });
+      deleteQuietly(blobPath(hash));
+      log.debug("Evicted cached blob {} ({} bytes)", hash, entry.getValue());
+    }
+  }
+
+  private void load() throws IOException {
+    try (Stream<Path> parts = Files.list(tmpDir)) {
+      parts.forEach(FileCache::deleteQuietly);
+    }
+    try (Stream<Path> files = Files.walk(blobDir)) {
+      List<Path> ordered = files.filter(Files::isRegularFile)
+          .sorted(Comparator.comparing(FileCache::lastModified))
+          .toList();
+      for (Path blob : ordered) {
+        long size = Files.size(blob);
+        blobs.put(blob.getFileName().toString(), size);
+        totalBytes += size;
+      }
+    }
+    try (Stream<Path> files = Files.list(keyDir)) {
+      files.forEach(path -> {
+        CachedFile file = readKeyFile(path);
+        if (file != null && blobs.containsKey(file.getHash())) {
+          keys.put(file.getKey(), file);
+        } else {
+          deleteQuietly(path);
+        }
+      });
+    }
+    evict(null);
+    log.info("File cache ready: {} blobs, {} keys, {} bytes", blobs.size(), keys.size(), totalBytes);
+  }
+
+  private void writeKeyFile(CachedFile file) throws IOException {
+    Properties props = new Properties();
+    props.setProperty("key", file.getKey());
+    props.setProperty("hash", file.getHash());
+    props.setProperty("size", Long.toString(file.getSize()));
+    if (file.getContentType() != null) {
+      props.setProperty("contentType", file.getContentType());
+    }
+    if (file.getFileName() != null) {
+      props.setProperty("fileName", file.getFileName());
+    }
+    Path temp = Files.createTempFile(tmpDir, "key-", ".part");
+    try (OutputStream out = Files.newOutputStream(temp)) {
+      props.store(out, null);
+    }
+    Files.move(temp, keyPath(file.getKey()), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private CachedFile readKeyFile(Path path) {
+    Properties props = new Properties();
+    try (InputStream in = Files.newInputStream(path)) {
+      props.load(in);
+      String hash = props.getProperty("hash");
+      return new CachedFile(props.getProperty("key"), hash, Long.parseLong(props.getProperty("size")),
+          props.getProperty("contentType"), props.getProperty("fileName"), blobPath(hash));
+    } catch (IOException | RuntimeException e) {
+      log.warn("Ignoring unreadable cache key file {}", path);
+      return null;
+    }
+  }
+
+  private Path blobPath(String hash) {
+    return blobDir.resolve(hash.substring(0, 2)).resolve(hash);
+  }
+
+  private Path keyPath(String key) {
+    return keyDir.resolve(sha256Hex(key.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String sha256Hex(byte[] bytes) {
+    return HexFormat.of().formatHex(sha256().digest(bytes));
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // Long.MAX_VALUE for anything that is not a pin
+  private static long pinnedAt(String name) {
+    int end = name.indexOf('-', 4);
+    if (!name.startsWith("pin-") || end < 0) {
+      return Long.MAX_VALUE;
+    }
+    try {
+      return Long.parseLong(name.substring(4, end));
+    } catch (NumberFormatException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  private static FileTime lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("Could not delete {}", path);
+    }
+  }
+
+  // Streams one file into the cache, hashing as it goes. Call commit() once the source is fully
+  // written or abort() if it failed; an uncommitted writer leaves nothing behind.
+  public final class Writer implements WritableByteChannel {
+
+    private final String key;
+    private final String contentType;
+    private final String fileName;
+    private final Path tempFile;
+    private final FileChannel channel;
+    private final MessageDigest digest = sha256();
+    private long size;
+
+    private Writer(String key, String contentType, String fileName, Path tempFile) throws IOException {
+      this.key = key;
+      this.contentType = contentType;
+      this.fileName = fileName;
+      this.tempFile = tempFile;
+      this.channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+      ByteBuffer forDigest = source.duplicate();
+      int written = 0;
+      while (source.hasRemaining()) {
+        written += channel.write(source);
+      }
+      digest.update(forDigest);
+      size += written;
+      return written;
+    }
+
+    public CachedFile commit() throws IOException {
+      channel.force(false);
+      channel.close();
+      return FileCache.this.commit(key, HexFormat.of().formatHex(digest.digest()), size, contentType, fileName,
+          tempFile);
+    }
+
+    public void abort() {
+      close();
+      deleteQuietly(tempFile);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return channel.isOpen();
+    }
+
+    @Override
+    public void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        log.debug("Closing cache writer failed", e);
+      }
+    }
+  }
+}
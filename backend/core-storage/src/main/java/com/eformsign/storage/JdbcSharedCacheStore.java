@@ -0,0 +1,148 @@
+package com.eformsign.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Shared tier on the application database, so replicas need no extra infrastructure.
+// Entries live in shared_cache_entries; pub/sub is an append-only shared_cache_events log that
+// every replica polls. Both tables are pruned as they expire.
+// Ids are assigned at insert but become visible at commit, so a lower id can show up after a higher one
+// was read. Each poll therefore also re-reads the last rescan-window of events and skips the ids it has
+// already delivered; an event committed later than that (or written by a replica whose clock is further
+// off) is missed, and the L1 entry it was for still expires on its TTL.
+@Slf4j
+public class JdbcSharedCacheStore implements SharedCacheStore {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final long eventRetentionMillis;
+  private final long rescanWindowMillis;
+  private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+  private final Map<Long, Long> delivered = new HashMap<>(); // id -> created_at, for the rescan window
+  private volatile long lastEventId;
+  private long lastPurgeMillis;
+
+  public JdbcSharedCacheStore(JdbcTemplate jdbcTemplate, Duration eventRetention, Duration rescanWindow) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.eventRetentionMillis = eventRetention.toMillis();
+    this.rescanWindowMillis = rescanWindow.toMillis();
+    // Only invalidations published after startup matter; this replica's L1 starts empty
+    Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM shared_cache_events", Long.class);
+    this.lastEventId = max != null ? max : 0;
+    jdbcTemplate.query("SELECT id, created_at FROM shared_cache_events WHERE id <= ? AND created_at >= ?",
+        rs -> {
+          delivered.put(rs.getLong(1), rs.getLong(2));
+        }, lastEventId, System.currentTimeMillis() - rescanWindowMillis);
+  }
+
+  @Override
+  public Optional<Entry> get(String key) {
+    List<Entry> rows = jdbcTemplate.query(
+        "SELECT cache_value, expires_at FROM shared_cache_entries WHERE cache_key = ? AND expires_at > ?",
+        (rs, i) -> new Entry(rs.getString(1), rs.getLong(2)), key, System.currentTimeMillis());
+    return rows.stream().findFirst();
+  }
+
+  @Override
+  public void put(String key, String value, Duration ttl) {
+    long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+    // Portable upsert (H2 locally, PostgreSQL in prod)
+    if (update(key, value, expiresAt) == 0) {
+      try {
+        jdbcTemplate.update("INSERT INTO shared_cache_entries (cache_key, cache_value, expires_at) VALUES (?, ?, ?)",
+            key, value, expiresAt);
+      } catch (DuplicateKeyException e) {
+        update(key, value, expiresAt);
+      }
+    }
+  }
+
+  private int update(String key, String value, long expiresAt) {
+    return jdbcTemplate.update("UPDATE shared_cache_entries SET cache_value = ?, expires_at = ? WHERE cache_key = ?",
+        value, expiresAt, key);
+  }
+
+  @Override
+  public void delete(String key) {
+    jdbcTemplate.update("DELETE FROM shared_cache_entries WHERE cache_key = ?", key);
+  }
+
+  @Override
+  public void deleteByPrefix(String prefix) {
+    String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    jdbcTemplate.update("DELETE FROM shared_cache_entries WHERE cache_key LIKE ? ESCAPE '\\'", pattern);
+  }
+
+  @Override
+  public boolean tryLock(String key, Duration ttl) {
+    String lockKey = key + LOCK_SUFFIX;
+    long now = System.currentTimeMillis();
+    jdbcTemplate.update("DELETE FROM shared_cache_entries WHERE cache_key = ? AND expires_at <= ?", lockKey, now);
+    try {
+      jdbcTemplate.update("INSERT INTO shared_cache_entries (cache_key, cache_value, expires_at) VALUES (?, '', ?)",
+          lockKey, now + ttl.toMillis());
+      return true;
+    } catch (DuplicateKeyException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public void unlock(String key) {
+    delete(key + LOCK_SUFFIX);
+  }
+
+  @Override
+  public void publish(String message) {
+    jdbcTemplate.update("INSERT INTO shared_cache_events (message, created_at) VALUES (?, ?)",
+        message, System.currentTimeMillis());
+  }
+
+  @Override
+  public void subscribe(Consumer<String> listener) {
+    listeners.add(listener);
+  }
+
+  // Invalidation latency across replicas is at most one poll interval. Scheduled runs never overlap,
+  // so delivered is only touched by one thread at a time.
+  @Scheduled(fixedDelayString = "${storage.shared-cache.poll-interval-ms:1000}")
+  public void poll() {
+    long now = System.currentTimeMillis();
+    long windowStart = now - rescanWindowMillis;
+    List<Object[]> events = jdbcTemplate.query(
+        "SELECT id, message, created_at FROM shared_cache_events WHERE id > ? OR created_at >= ? ORDER BY id",
+        (rs, i) -> new Object[] { rs.getLong(1), rs.getString(2), rs.getLong(3) }, lastEventId, windowStart);
+    delivered.values().removeIf(createdAt -> createdAt < windowStart);
+    for (Object[] event : events) {
+      long id = (Long) event[0];
+      if (delivered.containsKey(id)) {
+        continue;
+      }
+      lastEventId = Math.max(lastEventId, id);
+      delivered.put(id, (Long) event[2]);
+      String message = (String) event[1];
+      for (Consumer<String> listener : listeners) {
+        try {
+          listener.accept(message);
+        } catch (RuntimeException e) {
+          log.warn("Shared cache listener failed on {}", message, e);
+        }
+      }
+    }
+
+    if (now - lastPurgeMillis > eventRetentionMillis) {
+      lastPurgeMillis = now;
+      jdbcTemplate.update("DELETE FROM shared_cache_events WHERE created_at < ?", now - eventRetentionMillis);
+      jdbcTemplate.update("DELETE FROM shared_cache_entries WHERE expires_at <= ?", now);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.eformsign.storage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One member's leave usage in one period (calendar year), as maintained by LeaveBalanceStore
+@Getter
+@RequiredArgsConstructor
+public class LeaveBalance {
+  private final String companyId;
+  private final String memberId;
+  private final String period;
+  private final BigDecimal usedDays;
+  private final int documentCount;
+
+  public static LeaveBalance empty(String companyId, String memberId, String period) {
+    return new LeaveBalance(companyId, memberId, period, BigDecimal.ZERO, 0);
+  }
+}
@@ -0,0 +1,84 @@
+package com.eformsign.storage;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Leave usage aggregated per company, member and period, maintained incrementally instead of rescanning
+// completed leave documents on every view. leave_usage is the ledger (one row per counted document, so
+// replays of the same webhook or sync are no-ops); leave_balances holds the running totals read by lookups.
+// Concurrent first writes for the same key fail with DuplicateKeyException and roll back; callers retry.
+@Component
+public class LeaveBalanceStore {
+
+  private static final RowMapper<LeaveBalance> BALANCE = (rs, i) -> new LeaveBalance(
+      rs.getString("company_id"), rs.getString("member_id"), rs.getString("period"),
+      rs.getBigDecimal("used_days"), rs.getInt("document_count"));
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public LeaveBalanceStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public boolean isRecorded(String documentId) {
+    Integer count = jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM leave_usage WHERE document_id = ?", Integer.class, documentId);
+    return count != null && count > 0;
+  }
+
+  // false when the document was already counted
+  @Transactional
+  public boolean record(String documentId, String companyId, String memberId, String period, BigDecimal days) {
+    if (isRecorded(documentId)) {
+      return false;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    jdbcTemplate.update("INSERT INTO leave_usage (document_id, company_id, member_id, period, days, recorded_at) "
+        + "VALUES (?, ?, ?, ?, ?, ?)", documentId, companyId, memberId, period, days, Timestamp.valueOf(now));
+    int updated = jdbcTemplate.update("UPDATE leave_balances SET used_days = used_days + ?, "
+        + "document_count = document_count + 1, updated_at = ? WHERE company_id = ? AND member_id = ? AND period = ?",
+        days, Timestamp.valueOf(now), companyId, memberId, period);
+    if (updated == 0) {
+      jdbcTemplate.update("INSERT INTO leave_balances (company_id, member_id, period, used_days, document_count, "
+          + "updated_at) VALUES (?, ?, ?, ?, 1, ?)", companyId, memberId, period, days, Timestamp.valueOf(now));
+    }
+    return true;
+  }
+
+  // A counted document was cancelled or deleted; false when it was never counted
+  @Transactional
+  public boolean remove(String documentId) {
+    List<Object[]> rows = jdbcTemplate.query(
+        "SELECT company_id, member_id, period, days FROM leave_usage WHERE document_id = ?",
+        (rs, i) -> new Object[] {rs.getString(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4)}, documentId);
+    if (rows.isEmpty()) {
+      return false;
+    }
+    Object[] row = rows.get(0);
+    jdbcTemplate.update("DELETE FROM leave_usage WHERE document_id = ?", documentId);
+    jdbcTemplate.update("UPDATE leave_balances SET used_days = used_days - ?, document_count = document_count - 1, "
+        + "updated_at = ? WHERE company_id = ? AND member_id = ? AND period = ?",
+        row[3], Timestamp.valueOf(LocalDateTime.now()), row[0], row[1], row[2]);
+    return true;
+  }
+
+  // Primary-key lookup
+  public Optional<LeaveBalance> find(String companyId, String memberId, String period) {
+    return jdbcTemplate.query("SELECT company_id, member_id, period, used_days, document_count FROM leave_balances "
+        + "WHERE company_id = ? AND member_id = ? AND period = ?", BALANCE, companyId, memberId, period)
+        .stream().findFirst();
+  }
+
+  public List<LeaveBalance> findByPeriod(String companyId, String period) {
+    return jdbcTemplate.query("SELECT company_id, member_id, period, used_days, document_count FROM leave_balances "
+        + "WHERE company_id = ? AND period = ? ORDER BY member_id", BALANCE, companyId, period);
+  }
+}
@@ -0,0 +1,98 @@
+package com.eformsign.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// In-process stand-in for the shared tier: single node, local runs and tests. Same semantics as a
+// real store (TTLs, leases, asynchronous pub/sub), it just isn't shared with anyone.
+@Slf4j
+public class LocalSharedCacheStore implements SharedCacheStore {
+
+  private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+  private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+  private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "shared-cache-pubsub");
+    t.setDaemon(true);
+    return t;
+  });
+
+  @Override
+  public Optional<Entry> get(String key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (entry.getExpiresAtMillis() <= System.currentTimeMillis()) {
+      entries.remove(key, entry);
+      return Optional.empty();
+    }
+    return Optional.of(entry);
+  }
+
+  @Override
+  public void put(String key, String value, Duration ttl) {
+    entries.put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+  }
+
+  @Override
+  public void delete(String key) {
+    entries.remove(key);
+  }
+
+  @Override
+  public void deleteByPrefix(String prefix) {
+    entries.keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  @Override
+  public boolean tryLock(String key, Duration ttl) {
+    String lockKey = key + LOCK_SUFFIX;
+    long now = System.currentTimeMillis();
+    Entry lease = new Entry("", now + ttl.toMillis());
+    Entry current = entries.compute(lockKey,
+        (k, existing) -> existing == null || existing.getExpiresAtMillis() <= now ? lease : existing);
+    return current == lease;
+  }
+
+  @Override
+  public void unlock(String key) {
+    entries.remove(key + LOCK_SUFFIX);
+  }
+
+  @Override
+  public void publish(String message) {
+    dispatcher.execute(() -> listeners.forEach(listener -> {
+      try {
+        listener.accept(message);
+      } catch (RuntimeException e) {
+        log.warn("Shared cache listener failed on {}", message, e);
+      }
+    }));
+  }
+
+  @Override
+  public void subscribe(Consumer<String> listener) {
+    listeners.add(listener);
+  }
+
+  @Scheduled(fixedDelay = 60_000)
+  public void purgeExpired() {
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(entry -> entry.getExpiresAtMillis() <= now);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    dispatcher.shutdownNow();
+  }
+}
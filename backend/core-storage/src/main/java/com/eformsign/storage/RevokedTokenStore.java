@@ -0,0 +1,37 @@
+package com.eformsign.storage;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Revoked refresh-token ids and families in revoked_tokens. The primary key makes revoke() an atomic
+// test-and-set across replicas, which is what keeps refresh rotation single-use.
+@Component
+public class RevokedTokenStore {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public RevokedTokenStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public boolean isRevoked(String id) {
+    Integer count = jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM revoked_tokens WHERE token_id = ?", Integer.class, id);
+    return count != null && count > 0;
+  }
+
+  // false when the id was already revoked
+  public boolean revoke(String id, long expiresAtMillis) {
+    try {
+      jdbcTemplate.update("INSERT INTO revoked_tokens (token_id, expires_at) VALUES (?, ?)", id, expiresAtMillis);
+      return true;
+    } catch (DuplicateKeyException e) {
+      return false;
+    }
+  }
+
+  public int purgeExpired(long nowMillis) {
+    return jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at < ?", nowMillis);
+  }
+}
@@ -0,0 +1,45 @@
+package com.eformsign.storage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Second cache level shared by every api-server replica, plus the channel replicas use to tell each
+// other about invalidations. Implementations are picked with storage.shared-cache.type (SharedCacheStoreConfig).
+// Calls may block (network, database); callers keep them off request-critical threads where it matters.
+public interface SharedCacheStore {
+
+  String LOCK_SUFFIX = "#lock";
+
+  Optional<Entry> get(String key);
+
+  void put(String key, String value, Duration ttl);
+
+  void delete(String key);
+
+  void deleteByPrefix(String prefix);
+
+  // Short lease so only one replica loads a missing key; false when another replica holds it
+  boolean tryLock(String key, Duration ttl);
+
+  void unlock(String key);
+
+  // Delivered to every subscriber on every replica, including the publishing one
+  void publish(String message);
+
+  void subscribe(Consumer<String> listener);
+
+  @Getter
+  @RequiredArgsConstructor
+  class Entry {
+    private final String value;
+    private final long expiresAtMillis;
+
+    public Duration remaining() {
+      return Duration.ofMillis(Math.max(0, expiresAtMillis - System.currentTimeMillis()));
+    }
+  }
+}
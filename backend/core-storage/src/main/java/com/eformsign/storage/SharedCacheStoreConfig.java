@@ -0,0 +1,30 @@
+package com.eformsign.storage;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+// The store is chosen when the context starts rather than by a bean condition: AOT builds (faststart)
+// evaluate conditions once at build time, which would fix whichever store the build profile selected.
+@Configuration
+public class SharedCacheStoreConfig {
+
+  @Bean
+  public SharedCacheStore sharedCacheStore(ObjectProvider<JdbcTemplate> jdbcTemplate,
+      @Value("${storage.shared-cache.type:local}") String type,
+      @Value("${storage.shared-cache.event-retention:5m}") Duration eventRetention,
+      @Value("${storage.shared-cache.rescan-window:30s}") Duration rescanWindow) {
+    switch (type) {
+      case "local":
+        return new LocalSharedCacheStore();
+      case "jdbc":
+        return new JdbcSharedCacheStore(jdbcTemplate.getObject(), eventRetention, rescanWindow);
+      default:
+        throw new IllegalStateException("Unknown storage.shared-cache.type: " + type + " (local, jdbc)");
+    }
+  }
+}
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Startup benchmark for api-server variants: time-to-first-request and RSS.
+#
+#   ./gradlew :api-server:bootJar
+#   ./gradlew :api-server:cdsArchive -Paot -PaotProfiles=faststart       # fast-start layout + CDS archive
+#   ./gradlew :api-server:nativeCompile -Paot -PaotProfiles=faststart    # optional, needs GraalVM
+#
+# -PaotProfiles=faststart builds the local H2 variant the runs below start; the default (prod,faststart)
+# is what Dockerfile.faststart ships and needs a database.
+#   scripts/startup-bench.sh [runs]
+#
+# Each run starts the variant, polls the readiness probe until it answers 200 and records the
+# elapsed wall time and the process RSS at that moment.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+BUILD="$ROOT/api-server/build"
+# Point upstream calls at a closed port so warm-ups fail fast and don't skew the numbers
+COMMON_ARGS="--server.port=$PORT --eformsign.api.url=http://127.0.0.1:9"
+URL="http://127.0.0.1:$PORT/actuator/health/readiness"
+
+now_ms() { date +%s%3N; }
+
+measure() {
+  local name=$1 dir=$2; shift 2
+  local total_ms=0 total_rss=0
+  for i in $(seq 1 "$RUNS"); do
+    local start pid
+    start=$(now_ms)
+    (cd "$dir" && exec "$@" $COMMON_ARGS) > /tmp/startup-bench-$name.log 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$name: process exited, see /tmp/startup-bench-$name.log" >&2
+        return 1
+      fi
+      sleep 0.02
+    done
+    local elapsed=$(( $(now_ms) - start ))
+    local rss
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    total_ms=$((total_ms + elapsed))
+    total_rss=$((total_rss + rss))
+  done
+  printf "%-12s first-request %6d ms   RSS %7d KiB   (avg of %d)\n" \
+    "$name" $((total_ms / RUNS)) $((total_rss / RUNS)) "$RUNS"
+}
+
+JAR=$(ls "$BUILD"/libs/api-server-*.jar 2>/dev/null | grep -v plain | head -1 || true)
+if [[ -n "$JAR" ]]; then
+  measure "jar" "$BUILD/libs" java -jar "$JAR"
+fi
+
+if [[ -f "$BUILD/faststart/app.jsa" ]]; then
+  measure "faststart" "$BUILD/faststart" java -XX:SharedArchiveFile=app.jsa \
+    -Dspring.aot.enabled=true -Dspring.profiles.active=faststart @jvm.args com.eformsign.api.ApiServerApplication
+fi
+
+if [[ -x "$BUILD/native/nativeCompile/api-server" ]]; then
+  measure "native" "$BUILD/native/nativeCompile" ./api-server --spring.profiles.active=faststart
+fi
@@ -50,7 +50,6 @@ export default function GroupManagementPage() {
 
   useEffect(() => {
     fetchGroups();
-    fetchMembers();
   }, [page]);
 
   // Close dropdown when clicking outside
@@ -81,7 +80,9 @@ export default function GroupManagementPage() {
     }
   };
 
+  // Only the add-member picker needs every member; loaded once, when the modal first opens
   const fetchMembers = async () => {
+    if (allMembers.length > 0) return;
     try {
       // Reusing the member list endpoint
       const response = await api.get("/eformsign/company/members");
@@ -104,33 +105,33 @@ export default function GroupManagementPage() {
     setFormData({ name: "", description: "", selectedMembers: [] });
     setIsModalOpen(true);
     setMemberSearchTerm("");
+    fetchMembers();
   };
 
-  const handleOpenEdit = (group: Group) => {
+  const handleOpenEdit = async (group: Group) => {
     setIsEditMode(true);
     setEditingGroupId(group.id);
-
-    // Map existing members to Member objects
-    // The API response for group.members might be array of Objects or IDs.
-    // Based on previous code, let's look at fetchGroups response structure.
-    // If group.members is [{id: "...", name: "..."}], we use it.
-    // If text only, we map to object using allMembers lookup?
-    // Let's assume group.members contains objects.
-
-    // Correction: ensure we match format
-    const existingMembers = (group.members || []).map((m: any) => ({
-      id: m.id || m,
-      name: m.name || m.id || m, // Best effort name
-      email: m.id
-    }));
-
     setFormData({
       name: group.name || "",
       description: group.description || "",
-      selectedMembers: existingMembers
+      selectedMembers: []
     });
     setIsModalOpen(true);
     setMemberSearchTerm("");
+    fetchMembers();
+
+    // Current members come from the server-side membership index rather than the listing's member arrays
+    try {
+      const response = await api.get(`/eformsign/company/groups/${group.id}/members`);
+      const existingMembers = (response.data.data || []).map((m: any) => ({
+        id: m.id,
+        name: m.name || m.id,
+        email: m.id
+      }));
+      setFormData(prev => ({ ...prev, selectedMembers: existingMembers }));
+    } catch (error) {
+      console.error("Failed to fetch group members", error);
+    }
   };
 
   const handleAddMember = (member: Member) => {
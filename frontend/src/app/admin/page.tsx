@@ -3,6 +3,7 @@
 import { useEffect, useState } from "react";
 import { useRouter } from "next/navigation";
 import api from "@/lib/api";
+import { useDocumentEvents } from "@/lib/useDocumentEvents";
 import { Users, Files, Settings, Activity, ArrowRight, FileText, Clock, CheckSquare, UserPlus, } from "lucide-react";
 import Link from "next/link";
 
@@ -22,6 +23,9 @@ export default function AdminDashboardPage() {
     fetchStats();
   }, []);
 
+  // Refresh the counts when a document changes instead of polling
+  useDocumentEvents(() => fetchStats());
+
   const fetchStats = async () => {
     setLoading(true);
     try {
@@ -3,6 +3,7 @@
 import { useEffect, useState, Suspense } from "react";
 import { useRouter, useSearchParams } from "next/navigation";
 import api from "@/lib/api";
+import { useDocumentEvents } from "@/lib/useDocumentEvents";
 import { FileText, Clock, AlertCircle, History as HistoryIcon, User, CheckSquare, ChevronRight, ChevronLeft } from "lucide-react";
 import clsx from "clsx";
 
@@ -77,6 +78,9 @@ function DocumentsContent() {
     fetchDocuments();
   }, [filter, page]);
 
+  // Refresh when a document changes instead of polling
+  useDocumentEvents(() => fetchDocuments());
+
   const getDocTypeFromFilter = () => {
     switch (filter) {
       case "todo": return "02";
@@ -17,6 +17,14 @@ interface DocumentDetail {
   [key: string]: any;
 }
 
+// Precomputed on the server (/leave/balances/me); untracked balances carry no allowance
+interface LeaveBalance {
+  period: string;
+  tracked: boolean;
+  usedDays?: number;
+  remainingDays?: number;
+}
+
 const ACTION_TYPE_MAP: Record<string, string> = {
   "001": "문서 임시 저장",
   "002": "문서 생성",
@@ -66,6 +74,7 @@ function LeaveInfoContent() {
 
   const [document, setDocument] = useState<DocumentDetail | null>(null);
   const [loading, setLoading] = useState(true);
+  const [balance, setBalance] = useState<LeaveBalance | null>(null);
 
   useEffect(() => {
     if (id) {
@@ -73,6 +82,22 @@ function LeaveInfoContent() {
     }
   }, [id]);
 
+  // The caller's balance for the leave year the document falls in
+  const startDate: string = document?.fields?.find((f: any) => f.id === "휴가 시작일")?.value || "";
+  const period = /^\d{4}/.test(startDate) ? startDate.substring(0, 4) : undefined;
+
+  useEffect(() => {
+    if (!document) return;
+    api
+      .get("/leave/balances/me", { params: { period } })
+      .then((res) => {
+        if (res.data.success) {
+          setBalance(res.data.data);
+        }
+      })
+      .catch((error) => console.error("Failed to fetch leave balance", error));
+  }, [document, period]);
+
   const fetchDocumentDetail = async (docId: string) => {
     setLoading(true);
     try {
@@ -186,6 +211,13 @@ function LeaveInfoContent() {
                     {document.fields.find((f: any) => f.id === "일간")?.value || "0"}일간
                   </span>
                 </div>
+                {balance && (
+                  <p className="mt-2 text-sm text-gray-500">
+                    {balance.tracked
+                      ? `내 ${balance.period}년 연차: ${balance.usedDays}일 사용, ${balance.remainingDays}일 남음`
+                      : `내 ${balance.period}년 연차: 집계되지 않음`}
+                  </p>
+                )}
               </div>
 
               {/* 4. Leave Type */}
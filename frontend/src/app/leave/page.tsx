@@ -29,8 +29,23 @@ interface Document {
   }[];
 }
 
+// Precomputed on the server (/leave/balances/me); untracked balances carry no allowance
+interface LeaveBalance {
+  memberId: string;
+  period: string;
+  tracked: boolean;
+  allowanceDays?: number;
+  usedDays?: number;
+  remainingDays?: number;
+  documentCount?: number;
+}
+
+// Only what the list rows render; the detail page still loads the full document
+const LIST_FIELD_IDS = ["신청자명", "신청일", "휴가 구분", "휴가 시작일", "휴가 시작시각", "휴가 종료일", "휴가 종료시각", "휴가 종료시간", "일간"];
+
 export default function LeavePage() {
   const [documents, setDocuments] = useState<Document[]>([]);
+  const [balance, setBalance] = useState<LeaveBalance | null>(null);
   const [loading, setLoading] = useState(true);
   const router = useRouter();
 
@@ -66,6 +81,21 @@ export default function LeavePage() {
     fetchDocuments();
   }, [page]);
 
+  useEffect(() => {
+    fetchBalance();
+  }, []);
+
+  const fetchBalance = async () => {
+    try {
+      const response = await api.get("/leave/balances/me");
+      if (response.data.success) {
+        setBalance(response.data.data);
+      }
+    } catch (error) {
+      console.error("Failed to fetch leave balance", error);
+    }
+  };
+
   const fetchDocuments = async () => {
     setLoading(true);
     try {
@@ -106,7 +136,9 @@ export default function LeavePage() {
       if (initialDocs.length > 0) {
         const detailPromises = initialDocs.map((doc) =>
           api
-            .get(`/eformsign/documents/${doc.id}`)
+            .get(`/eformsign/documents/${doc.id}`, {
+              params: { include: "fields", fields: LIST_FIELD_IDS.join(",") },
+            })
             .then((res) => {
               if (res.data.success) {
                 const rData = res.data.data;
@@ -230,6 +262,7 @@ export default function LeavePage() {
         alert("휴가 신청서가 성공적으로 작성되었습니다.");
         handleCloseWriteModal();
         fetchDocuments(); // Refresh list
+        fetchBalance();
       }
     };
 
@@ -278,6 +311,29 @@ export default function LeavePage() {
         </button>
       </header>
 
+      {balance && (
+        <div className="mb-6 bg-white rounded-lg shadow border border-gray-200 p-4 flex flex-wrap gap-8 text-sm">
+          <div>
+            <p className="text-gray-500">{balance.period}년 연차</p>
+            <p className="text-lg font-semibold text-gray-900">
+              {balance.tracked ? `${balance.allowanceDays}일` : "집계되지 않음"}
+            </p>
+          </div>
+          {balance.tracked && (
+            <>
+              <div>
+                <p className="text-gray-500">사용</p>
+                <p className="text-lg font-semibold text-gray-900">{balance.usedDays}일 ({balance.documentCount}건)</p>
+              </div>
+              <div>
+                <p className="text-gray-500">잔여</p>
+                <p className="text-lg font-semibold text-blue-600">{balance.remainingDays}일</p>
+              </div>
+            </>
+          )}
+        </div>
+      )}
+
       {loading ? (
         <div className="flex justify-center items-center h-64">
           <Loader2 className="w-8 h-8 animate-spin text-blue-500" />
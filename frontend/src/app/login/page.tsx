@@ -22,9 +22,10 @@ export default function LoginPage() {
 
     try {
       const response = await api.post("/auth/login", formData);
-      const { accessToken } = response.data.data;
+      const { accessToken, refreshToken } = response.data.data;
 
       localStorage.setItem("accessToken", accessToken);
+      localStorage.setItem("refreshToken", refreshToken);
 
       router.push("/");
     } catch (err: any) {
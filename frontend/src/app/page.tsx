@@ -3,6 +3,7 @@
 import { useEffect, useState } from "react";
 import { useRouter } from "next/navigation";
 import api from "@/lib/api";
+import { useDocumentEvents } from "@/lib/useDocumentEvents";
 import { FileText, Clock, CheckSquare, ArrowRight, Activity } from "lucide-react";
 import Link from "next/link";
 
@@ -26,6 +27,9 @@ export default function Home() {
     checkUserAndFetchStats();
   }, []);
 
+  // Refresh the counts when a document changes instead of polling
+  useDocumentEvents(() => checkUserAndFetchStats());
+
   const checkUserAndFetchStats = async () => {
     try {
       // 1. Get User Info
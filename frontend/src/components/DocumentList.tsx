@@ -3,6 +3,7 @@
 import { useEffect, useState } from "react";
 import { useRouter } from "next/navigation";
 import api from "@/lib/api";
+import { useDocumentEvents } from "@/lib/useDocumentEvents";
 import { FileText, Clock, History as HistoryIcon, User, ChevronLeft, ChevronRight } from "lucide-react";
 import clsx from "clsx";
 
@@ -81,6 +82,9 @@ export default function DocumentList({ type, title, icon }: DocumentListProps) {
     fetchDocuments();
   }, [type, page]);
 
+  // Refresh when a document changes instead of polling
+  useDocumentEvents(() => fetchDocuments());
+
   const fetchDocuments = async () => {
     setLoading(true);
     try {
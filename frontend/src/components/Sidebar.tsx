@@ -48,7 +48,12 @@ export default function Sidebar() {
   }, []);
 
   const handleLogout = () => {
+    const refreshToken = localStorage.getItem("refreshToken");
+    if (refreshToken) {
+      api.post("/auth/logout", { refreshToken }).catch(() => {});
+    }
     localStorage.removeItem("accessToken");
+    localStorage.removeItem("refreshToken");
     router.push("/login");
   };
 
@@ -22,14 +22,56 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
+// Shared across concurrent 401s so a burst of requests triggers a single refresh
+let refreshPromise: Promise<string> | null = null;
+
+// Tabs share the tokens in localStorage, and a refresh token is single-use: a second tab refreshing
+// with it would look like a replay and end the session. The Web Lock makes tabs refresh one at a time,
+// and a tab that waited finds the token already rotated by another and just picks up the new one.
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshPromise) {
+    const staleToken = localStorage.getItem('refreshToken');
+    const refresh = async (): Promise<string> => {
+      const refreshToken = localStorage.getItem('refreshToken');
+      if (!refreshToken) {
+        throw new Error('No refresh token');
+      }
+      const current = localStorage.getItem('accessToken');
+      if (refreshToken !== staleToken && current) {
+        return current;
+      }
+      const res = await axios.post(`${api.defaults.baseURL}/auth/refresh`, { refreshToken });
+      const { accessToken, refreshToken: rotated } = res.data.data;
+      localStorage.setItem('accessToken', accessToken);
+      localStorage.setItem('refreshToken', rotated);
+      return accessToken as string;
+    };
+    refreshPromise = ('locks' in navigator ? navigator.locks.request('auth-refresh', refresh) : refresh())
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
-    if (error.response?.status === 401) {
-      if (typeof window !== 'undefined') {
-        localStorage.removeItem('accessToken');
-        window.location.href = '/login';
+  async (error) => {
+    const original = error.config;
+    if (error.response?.status === 401 && typeof window !== 'undefined') {
+      if (original && !original._retry) {
+        original._retry = true;
+        try {
+          const token = await refreshAccessToken();
+          original.headers.Authorization = `Bearer ${token}`;
+          return api(original);
+        } catch {
+          // Fall through to the login redirect
+        }
       }
+      localStorage.removeItem('accessToken');
+      localStorage.removeItem('refreshToken');
+      window.location.href = '/login';
     }
     return Promise.reject(error);
   }
@@ -0,0 +1,76 @@
+import { useEffect, useRef } from "react";
+import api from "@/lib/api";
+
+export interface DocumentStatusEvent {
+  documentId: string;
+  statusType: string | null;
+}
+
+// Subscribes to the server's document status stream instead of re-polling the document lists.
+// Bursts of events are coalesced so a page refetches at most once per debounce window.
+// Read with fetch rather than EventSource so the token goes in the Authorization header, not the URL
+// (where it would end up in access logs).
+export function useDocumentEvents(onChange: (event: DocumentStatusEvent) => void, debounceMs = 500) {
+  const handler = useRef(onChange);
+  handler.current = onChange;
+
+  useEffect(() => {
+    if (typeof window === "undefined" || typeof fetch === "undefined") return;
+
+    const abort = new AbortController();
+    let debounce: ReturnType<typeof setTimeout> | null = null;
+    let retry: ReturnType<typeof setTimeout> | null = null;
+    let closed = false;
+
+    const dispatch = (block: string) => {
+      let type = "message";
+      const data: string[] = [];
+      for (const line of block.split(/\r?\n/)) {
+        if (line.startsWith("event:")) type = line.slice(6).trim();
+        else if (line.startsWith("data:")) data.push(line.slice(5).replace(/^ /, ""));
+      }
+      if (type !== "document-status" || data.length === 0) return;
+      const event = JSON.parse(data.join("\n")) as DocumentStatusEvent;
+      if (debounce) clearTimeout(debounce);
+      debounce = setTimeout(() => handler.current(event), debounceMs);
+    };
+
+    const connect = async () => {
+      const token = localStorage.getItem("accessToken");
+      if (!token || closed) return;
+      try {
+        const response = await fetch(`${api.defaults.baseURL}/events/documents`, {
+          headers: { Authorization: `Bearer ${token}`, Accept: "text/event-stream" },
+          signal: abort.signal,
+        });
+        // 403: this company has no stream; its pages keep polling
+        if (response.status === 403) return;
+        if (response.ok && response.body) {
+          const reader = response.body.getReader();
+          const decoder = new TextDecoder();
+          let buffer = "";
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += decoder.decode(value, { stream: true });
+            const blocks = buffer.split(/\r?\n\r?\n/);
+            buffer = blocks.pop() ?? "";
+            blocks.forEach(dispatch);
+          }
+        }
+      } catch {
+        // Aborted on unmount, or the connection dropped
+      }
+      // Usually an expired access token; reconnect with whatever the API client has refreshed since
+      if (!closed) retry = setTimeout(connect, 5000);
+    };
+
+    connect();
+    return () => {
+      closed = true;
+      abort.abort();
+      if (debounce) clearTimeout(debounce);
+      if (retry) clearTimeout(retry);
+    };
+  }, [debounceMs]);
+}